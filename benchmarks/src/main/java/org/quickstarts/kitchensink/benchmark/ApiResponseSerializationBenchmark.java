@@ -0,0 +1,70 @@
+package org.quickstarts.kitchensink.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter objectWriter;
+    private ApiResponse<List<Member>> apiResponse;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC applies to the controllers' message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectWriter = objectMapper.writerFor(ApiResponse.class);
+
+        List<Member> members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Member member = new Member("Member " + (char) ('a' + i % 26), "member" + i + "@example.com",
+                    String.format("98765%05d", i));
+            member.setId(String.format("%024x", i));
+            members.add(member);
+        }
+        apiResponse = new ApiResponse<>(HttpStatus.OK.value(), "Members retrieved successfully", members);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(apiResponse);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(apiResponse);
+    }
+
+    @Benchmark
+    public byte[] preparedWriter() throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(apiResponse);
+    }
+}
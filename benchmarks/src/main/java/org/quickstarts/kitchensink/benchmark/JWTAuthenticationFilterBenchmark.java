@@ -0,0 +1,114 @@
+package org.quickstarts.kitchensink.benchmark;
+
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quickstarts.kitchensink.cache.RejectedTokenCache;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.cache.VerifiedTokenCache;
+import org.quickstarts.kitchensink.config.RejectedTokenCacheProperties;
+import org.quickstarts.kitchensink.config.VerifiedTokenCacheProperties;
+import org.quickstarts.kitchensink.filter.JWTAuthenticationFilter;
+import org.quickstarts.kitchensink.filter.JwtAuthenticationEntryPoint;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.pojo.UserPrincipalDTO;
+import org.quickstarts.kitchensink.repository.UserRepository;
+import org.quickstarts.kitchensink.service.JwtTokenService;
+import org.quickstarts.kitchensink.service.UserService;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTAuthenticationFilterBenchmark {
+    private static final String USERNAME = "john@example.com";
+
+    private JWTAuthenticationFilter jwtAuthenticationFilter;
+    private JWTAuthenticationFilter uncachedFilter;
+    private String accessToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        JwtTokenService jwtTokenService = new JwtTokenService();
+        UserService userService = mock(UserService.class);
+        when(userService.loadUserByUsername(USERNAME)).thenReturn(new UserPrincipalDTO(new User(USERNAME, "secret")));
+        TokenGenerationCache tokenGenerationCache = new TokenGenerationCache(mock(UserRepository.class));
+
+        jwtAuthenticationFilter = new JWTAuthenticationFilter(userService, jwtTokenService,
+                new RejectedTokenCache(new RejectedTokenCacheProperties()),
+                new VerifiedTokenCache(new VerifiedTokenCacheProperties()), tokenGenerationCache,
+                new JwtAuthenticationEntryPoint());
+        VerifiedTokenCacheProperties disabled = new VerifiedTokenCacheProperties();
+        disabled.setEnabled(false);
+        uncachedFilter = new JWTAuthenticationFilter(userService, jwtTokenService,
+                new RejectedTokenCache(new RejectedTokenCacheProperties()),
+                new VerifiedTokenCache(disabled), tokenGenerationCache, new JwtAuthenticationEntryPoint());
+        accessToken = jwtTokenService.generateToken(USERNAME);
+        tamperedToken = accessToken.substring(0, accessToken.length() - 4) + "AAAA";
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws ServletException, IOException {
+        return filter("Bearer " + accessToken);
+    }
+
+    // Same token with the verified-token cache off, so every request re-verifies the signature
+    @Benchmark
+    public Authentication authenticatedRequestUncached() throws ServletException, IOException {
+        return filter(uncachedFilter, "Bearer " + accessToken);
+    }
+
+    @Benchmark
+    public Authentication malformedToken() throws ServletException, IOException {
+        return filter("Bearer not-a-jwt");
+    }
+
+    @Benchmark
+    public Authentication tamperedToken() throws ServletException, IOException {
+        return filter("Bearer " + tamperedToken);
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws ServletException, IOException {
+        return filter(null);
+    }
+
+    private Authentication filter(String authorization) throws ServletException, IOException {
+        return filter(jwtAuthenticationFilter, authorization);
+    }
+
+    private Authentication filter(JWTAuthenticationFilter filter, String authorization) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/members");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.quickstarts.kitchensink.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.pojo.UserPrincipalDTO;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.quickstarts.kitchensink.service.JwtTokenService;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+    private static final String USERNAME = "john@example.com";
+
+    private JwtTokenService jwtTokenService;
+    private UserDetails userDetails;
+    private String accessToken;
+    private String refreshToken;
+    private String extraClaimsToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenService = new JwtTokenService();
+        userDetails = new UserPrincipalDTO(new User(USERNAME, "secret"));
+        accessToken = jwtTokenService.generateToken(USERNAME);
+        refreshToken = jwtTokenService.generateRefreshToken(USERNAME);
+        extraClaimsToken = jwtTokenService.generateToken(USERNAME, Map.of("role", "admin"));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenService.generateToken(USERNAME);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtTokenService.generateRefreshToken(USERNAME);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtTokenService.extractUsername(accessToken);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenService.validateToken(accessToken, userDetails);
+    }
+
+    @Benchmark
+    public boolean isRefreshToken() {
+        return jwtTokenService.isRefreshToken(refreshToken);
+    }
+
+    // Specialized HS256 path the filter uses for tokens we issued
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtTokenService.verify(accessToken);
+    }
+
+    // Falls back to jjwt because of the unfamiliar claim
+    @Benchmark
+    public VerifiedToken verifyWithExtraClaims() {
+        return jwtTokenService.verify(extraClaimsToken);
+    }
+
+    // What the filter did per request before verify(): three full jjwt parses
+    @Benchmark
+    public boolean legacyFilterChecks() {
+        String username = jwtTokenService.extractUsername(accessToken);
+        return username != null && jwtTokenService.validateToken(accessToken, userDetails)
+                && !jwtTokenService.isRefreshToken(accessToken);
+    }
+}
@@ -0,0 +1,62 @@
+package org.quickstarts.kitchensink.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quickstarts.kitchensink.cache.MemberResponseCache;
+import org.quickstarts.kitchensink.config.ResponseCacheProperties;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.ApiResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached bytes against per-request serialization for {@code GET /api/v1/members/{id}};
+ * run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberResponseCacheBenchmark {
+    private static final String MEMBER_ID = "6778007913f34819876ffff5";
+
+    private ObjectMapper objectMapper;
+    private MemberResponseCache memberResponseCache;
+    private ApiResponse<Member> apiResponse;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        memberResponseCache = new MemberResponseCache(new ResponseCacheProperties());
+
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId(MEMBER_ID);
+        apiResponse = new ApiResponse<>(HttpStatus.OK.value(), "Member retrieved successfully", member);
+        memberResponseCache.put(MEMBER_ID, "\"" + MEMBER_ID + "-0\"", objectMapper.writeValueAsBytes(apiResponse),
+                memberResponseCache.stamp());
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(apiResponse);
+    }
+
+    @Benchmark
+    public byte[] cachedBytes() {
+        return memberResponseCache.get(MEMBER_ID).json();
+    }
+}
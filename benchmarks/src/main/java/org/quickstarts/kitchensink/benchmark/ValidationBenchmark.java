@@ -0,0 +1,86 @@
+package org.quickstarts.kitchensink.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quickstarts.kitchensink.pojo.MemberDTO;
+import org.quickstarts.kitchensink.pojo.UserSignUpDTO;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.EMAIL_REGEX;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.PASSWORD_REGEX;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile(PASSWORD_REGEX);
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private final MemberDTO validMember = new MemberDTO("John Doe", "john@example.com", "9876543210");
+    private final MemberDTO invalidMember = new MemberDTO("John 2", "john@", "98765");
+    private final UserSignUpDTO validSignUp = new UserSignUpDTO("john@example.com", "Passw0rd!");
+    private final UserSignUpDTO invalidSignUp = new UserSignUpDTO("john.example.com", "password");
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MemberDTO>> validateMember() {
+        return validator.validate(validMember);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MemberDTO>> validateInvalidMember() {
+        return validator.validate(invalidMember);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserSignUpDTO>> validateSignUp() {
+        return validator.validate(validSignUp);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserSignUpDTO>> validateInvalidSignUp() {
+        return validator.validate(invalidSignUp);
+    }
+
+    @Benchmark
+    public boolean matchEmailRegex() {
+        return EMAIL_PATTERN.matcher(validMember.getEmail()).matches();
+    }
+
+    @Benchmark
+    public boolean matchPasswordRegex() {
+        return PASSWORD_PATTERN.matcher(validSignUp.getPassword()).matches();
+    }
+}
@@ -0,0 +1,271 @@
+package org.quickstarts.kitchensink.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a weighted request mix from a fixed number of workers. With a target rate, every request gets an intended
+ * start time on a shared schedule and latency is measured from that time, so a stalled server is charged for the
+ * requests it delayed (no coordinated omission). With {@code --rate=0} each worker sends as fast as responses return.
+ */
+class LoadDriver {
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    enum Operation {LOGIN, LOOKUP, LIST, CREATE, STATUS}
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+    private final double rate;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final int users;
+    private final String prefix;
+    private final String password;
+    private final String report;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong created = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private List<String> memberIds;
+    private List<String> tokens;
+
+    LoadDriver(Arguments arguments) {
+        baseUrl = arguments.get("base-url", "http://localhost:8080");
+        rate = arguments.getDouble("rate", 200);
+        concurrency = arguments.getInt("concurrency", 64);
+        duration = arguments.getDuration("duration", Duration.ofSeconds(60));
+        warmup = arguments.getDuration("warmup", Duration.ofSeconds(10));
+        mix = parseMix(arguments.get("mix", "login:5,lookup:60,list:5,create:10,status:20"));
+        totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        users = arguments.getInt("users", 1_000);
+        prefix = arguments.get("prefix", "load");
+        password = arguments.get("password", "Passw0rd!");
+        report = arguments.get("report", null);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void run() throws Exception {
+        tokens = new ArrayList<>();
+        for (int i = 0; i < Math.min(concurrency, users); i++) {
+            tokens.add(login(DataSeeder.userEmail(prefix, i)));
+        }
+        memberIds = sampleMemberIds();
+        log.info("Driving {} for {} (+{} warmup) at {} with {} workers over {} member ids",
+                mix, duration, warmup, rate > 0 ? rate + " req/s" : "max rate", concurrency, memberIds.size());
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        AtomicLong schedule = new AtomicLong(start);
+        long interval = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                String token = tokens.get(worker % tokens.size());
+                workers.submit(() -> work(token, schedule, interval, measureFrom, end));
+            }
+            LockSupport.parkNanos(measureFrom - System.nanoTime());
+            log.info("Warmup done, measuring");
+        }
+        print();
+        if (report != null) {
+            writeReport(new File(report));
+        }
+    }
+
+    private void work(String token, AtomicLong schedule, long interval, long measureFrom, long end) {
+        while (true) {
+            long intended = interval > 0 ? schedule.getAndAdd(interval) : System.nanoTime();
+            if (intended >= end) {
+                return;
+            }
+            LockSupport.parkNanos(intended - System.nanoTime());
+
+            Operation operation = pick();
+            boolean ok;
+            try {
+                ok = execute(operation, token);
+            } catch (Exception e) {
+                ok = false;
+            }
+            long latency = System.nanoTime() - intended;
+            if (intended >= measureFrom) {
+                latencies.get(operation).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                if (!ok) {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private boolean execute(Operation operation, String token) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String memberId = memberIds.get(random.nextInt(memberIds.size()));
+        HttpRequest request = switch (operation) {
+            case LOGIN -> json("/auth/token", null, "POST",
+                    credentials(DataSeeder.userEmail(prefix, random.nextInt(users))));
+            case LOOKUP -> authorized("/api/v1/members/" + memberId, token).GET().build();
+            case LIST -> authorized("/api/v1/members", token).GET().build();
+            case CREATE -> json("/api/v1/members", token, "POST", objectMapper.createObjectNode()
+                    .put("name", "Load Driver")
+                    .put("email", prefix + "-" + runId + "-" + created.incrementAndGet() + "@example.com")
+                    .put("phoneNumber", String.valueOf(6_000_000_000L + random.nextLong(4_000_000_000L))));
+            case STATUS -> authorized("/api/v1/members/status/" + memberId
+                    + "?status=" + (random.nextBoolean() ? "ACTIVE" : "INACTIVE"), token)
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+        };
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return status < 400;
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(json("/auth/token", null, "POST", credentials(email)),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + email + " (" + response.statusCode()
+                    + "); seed users first or check --prefix/--password");
+        }
+        return objectMapper.readTree(response.body()).get("access_token").asText();
+    }
+
+    // Member ids for lookups and status changes, from the first pages of the delta sync feed.
+    private List<String> sampleMemberIds() throws IOException, InterruptedException {
+        List<String> ids = new ArrayList<>();
+        String since = "0";
+        for (int page = 0; page < 20; page++) {
+            HttpResponse<String> response = httpClient.send(
+                    authorized("/api/v1/members/changes?since=" + since, tokens.getFirst()).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode data = objectMapper.readTree(response.body()).get("data");
+            data.get("members").forEach(member -> ids.add(member.get("id").asText()));
+            since = data.get("nextToken").asText();
+            if (!data.get("hasMore").asBoolean()) {
+                break;
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No members to drive lookups against; seed members first");
+        }
+        return ids;
+    }
+
+    private ObjectNode credentials(String email) {
+        return objectMapper.createObjectNode().put("username", email).put("password", password);
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest json(String path, String token, String method, JsonNode body) throws IOException {
+        return authorized(path, token)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private void print() {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%n%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation.name().toLowerCase(), histogram.getTotalCount(), errors.get(operation).sum(),
+                    histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 90),
+                    millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+        }
+    }
+
+    private void writeReport(File file) throws IOException {
+        ArrayNode endpoints = objectMapper.createArrayNode();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            endpoints.addObject()
+                    .put("endpoint", operation.name().toLowerCase())
+                    .put("requests", histogram.getTotalCount())
+                    .put("errors", errors.get(operation).sum())
+                    .put("throughput", histogram.getTotalCount() / (duration.toNanos() / 1e9))
+                    .put("p50Ms", millis(histogram, 50))
+                    .put("p90Ms", millis(histogram, 90))
+                    .put("p99Ms", millis(histogram, 99))
+                    .put("p999Ms", millis(histogram, 99.9))
+                    .put("maxMs", histogram.getMaxValue() / 1e6);
+        }
+        ObjectNode root = objectMapper.createObjectNode()
+                .put("baseUrl", baseUrl)
+                .put("targetRate", rate)
+                .put("concurrency", concurrency)
+                .put("durationSeconds", duration.toSeconds());
+        root.set("endpoints", endpoints);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+        log.info("Wrote {}", file);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,32 @@
+package org.quickstarts.kitchensink.loadtest;
+
+/**
+ * Entry point: {@code seed} bulk-inserts synthetic members and users into MongoDB, {@code drive} runs a request mix
+ * against a running instance and reports per-endpoint throughput and latency percentiles.
+ */
+public class LoadTool {
+    private static final String USAGE = """
+            Usage:
+              java -jar loadtest.jar seed  [--mongo-uri=...] [--database=kitchensink] [--members=1000000] [--users=1000]
+                                           [--prefix=load] [--password=Passw0rd!] [--batch-size=5000] [--threads=4]
+              java -jar loadtest.jar drive [--base-url=http://localhost:8080] [--rate=200] [--concurrency=64]
+                                           [--duration=PT60S] [--warmup=PT10S] [--mix=login:5,lookup:60,list:5,create:10,status:20]
+                                           [--users=1000] [--prefix=load] [--password=Passw0rd!] [--report=report.json]
+            """;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.print(USAGE);
+            System.exit(1);
+        }
+        Arguments arguments = new Arguments(args, 1);
+        switch (args[0]) {
+            case "seed" -> new DataSeeder(arguments).run();
+            case "drive" -> new LoadDriver(arguments).run();
+            default -> {
+                System.err.print(USAGE);
+                System.exit(1);
+            }
+        }
+    }
+}
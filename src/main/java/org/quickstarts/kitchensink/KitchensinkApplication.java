@@ -2,8 +2,10 @@ package org.quickstarts.kitchensink;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class KitchensinkApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(KitchensinkApplication.class, args);
@@ -0,0 +1,33 @@
+package org.quickstarts.kitchensink.aspect;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.quickstarts.kitchensink.repository.QueryShapeGuard;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MONGO_PROFILE_EXPRESSION;
+
+// Fails member and user repository calls that ran a collection scan while the query guard is strict.
+@Aspect
+@Component
+@Profile(MONGO_PROFILE_EXPRESSION)
+@RequiredArgsConstructor
+public class QueryShapeAspect {
+    private final QueryShapeGuard queryShapeGuard;
+
+    @Pointcut("execution(* org.quickstarts.kitchensink.repository.MemberRepository+.*(..))"
+            + " || execution(* org.quickstarts.kitchensink.repository.UserRepository+.*(..))")
+    public void guardedRepositoryMethods() {}
+
+    @Around("guardedRepositoryMethods()")
+    public Object checkQueryShapes(ProceedingJoinPoint joinPoint) throws Throwable {
+        queryShapeGuard.reset();
+        Object result = joinPoint.proceed();
+        queryShapeGuard.check();
+        return result;
+    }
+}
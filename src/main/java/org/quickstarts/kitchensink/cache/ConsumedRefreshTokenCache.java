@@ -0,0 +1,60 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.quickstarts.kitchensink.config.RefreshTokenCacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// jtis of refresh tokens this instance has seen exchanged, so most replays are caught without a database round trip.
+@Component
+public class ConsumedRefreshTokenCache {
+    private final RefreshTokenCacheProperties refreshTokenCacheProperties;
+
+    private final Map<String, Long> consumed = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConsumedRefreshTokenCache(RefreshTokenCacheProperties refreshTokenCacheProperties) {
+        this.refreshTokenCacheProperties = refreshTokenCacheProperties;
+    }
+
+    public boolean contains(String tokenId) {
+        if (!refreshTokenCacheProperties.isEnabled()) {
+            return false;
+        }
+        Long expiresAt = consumed.get(tokenId);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            consumed.remove(tokenId, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    // expiresAt in epoch millis; past that the token is refused as expired anyway.
+    public void add(String tokenId, long expiresAt) {
+        if (!refreshTokenCacheProperties.isEnabled()) {
+            return;
+        }
+        if (consumed.size() >= refreshTokenCacheProperties.getMaxEntries()) {
+            Iterator<String> iterator = consumed.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        consumed.put(tokenId, expiresAt);
+    }
+
+    public void clear() {
+        consumed.clear();
+    }
+
+    public int size() {
+        return consumed.size();
+    }
+}
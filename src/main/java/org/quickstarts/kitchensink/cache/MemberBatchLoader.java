@@ -0,0 +1,132 @@
+package org.quickstarts.kitchensink.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.quickstarts.kitchensink.config.MemberBatchProperties;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.util.FutureUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batches member lookups by id, DataLoader style. The first lookup opens a batch and arms a timer for the window;
+ * lookups arriving before it fires join the batch, and the batch is sent as one {@code _id $in} query when the timer
+ * fires or it reaches max-batch-size distinct ids, whichever comes first. Callers block on their own future, so each
+ * lookup pays at most one window of extra latency in exchange for sharing a round trip.
+ */
+@Component
+public class MemberBatchLoader implements MeterBinder {
+    private final MemberRepository memberRepository;
+    private final MemberBatchProperties memberBatchProperties;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("member-batch-timer").daemon().factory());
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    // Guarded by this
+    private Map<String, List<CompletableFuture<Optional<Member>>>> pending;
+
+    @Autowired
+    public MemberBatchLoader(MemberRepository memberRepository, MemberBatchProperties memberBatchProperties) {
+        this.memberRepository = memberRepository;
+        this.memberBatchProperties = memberBatchProperties;
+    }
+
+    public boolean isEnabled() {
+        return memberBatchProperties.isEnabled();
+    }
+
+    public Optional<Member> load(String id) {
+        CompletableFuture<Optional<Member>> future = new CompletableFuture<>();
+        Map<String, List<CompletableFuture<Optional<Member>>>> full = null;
+        synchronized (this) {
+            if (pending == null) {
+                Map<String, List<CompletableFuture<Optional<Member>>>> batch = new LinkedHashMap<>();
+                pending = batch;
+                timer.schedule(() -> flush(batch), memberBatchProperties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+            pending.computeIfAbsent(id, key -> new ArrayList<>(1)).add(future);
+            if (pending.size() >= memberBatchProperties.getMaxBatchSize()) {
+                full = pending;
+                pending = null;
+            }
+        }
+        loads.increment();
+        if (full != null) {
+            dispatch(full);
+        }
+        return FutureUtils.join(future);
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("kitchensink.member-batch.loads", this, MemberBatchLoader::getLoads)
+                .description("Member lookups served through batches")
+                .register(registry);
+        FunctionCounter.builder("kitchensink.member-batch.queries", this, MemberBatchLoader::getBatches)
+                .description("Batched $in queries sent to the repository")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        timer.shutdownNow();
+        dispatcher.close();
+    }
+
+    private void flush(Map<String, List<CompletableFuture<Optional<Member>>>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return; // Already sent because it filled up
+            }
+            pending = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<String, List<CompletableFuture<Optional<Member>>>> batch) {
+        dispatcher.execute(() -> {
+            Map<String, Member> found = new HashMap<>();
+            try {
+                memberRepository.findAllById(batch.keySet()).forEach(member -> found.put(member.getId(), member));
+                batches.increment();
+            } catch (RuntimeException e) {
+                batch.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(e)));
+                return;
+            }
+            batch.forEach((id, futures) -> {
+                Member member = found.get(id);
+                for (int i = 0; i < futures.size(); i++) {
+                    // Callers that asked for the same id each get their own copy
+                    futures.get(i).complete(Optional.ofNullable(member == null || i == 0 ? member : member.copy()));
+                }
+            });
+        });
+    }
+}
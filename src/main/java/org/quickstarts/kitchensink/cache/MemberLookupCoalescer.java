@@ -0,0 +1,85 @@
+package org.quickstarts.kitchensink.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.util.SingleFlight;
+import org.quickstarts.kitchensink.util.TransactionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent member lookups by id and by email into one MongoDB query per key. Waiting callers get their
+ * own copy of the member, since controllers modify and save what they load. Writes release the member's keys after
+ * commit, so a lookup that follows a write never joins a query that started before it.
+ */
+@Component
+public class MemberLookupCoalescer implements MeterBinder {
+    private final SingleFlight<String, Optional<Member>> byId = new SingleFlight<>(MemberLookupCoalescer::copy);
+    private final SingleFlight<String, Optional<Member>> byEmail = new SingleFlight<>(MemberLookupCoalescer::copy);
+
+    public Optional<Member> findById(String id, Supplier<Optional<Member>> loader) {
+        return byId.execute(id, loader);
+    }
+
+    public Optional<Member> findByEmail(String email, Supplier<Optional<Member>> loader) {
+        return byEmail.execute(email, loader);
+    }
+
+    public void forgetAfterCommit(Member member) {
+        String id = member.getId();
+        String email = member.getEmail();
+        TransactionUtils.afterCommit(() -> {
+            if (id != null) {
+                byId.forget(id);
+            }
+            if (email != null) {
+                byEmail.forget(email);
+            }
+        });
+    }
+
+    public void forgetAllAfterCommit(Collection<Member> members) {
+        List<String> ids = members.stream().map(Member::getId).filter(Objects::nonNull).toList();
+        List<String> emails = members.stream().map(Member::getEmail).filter(Objects::nonNull).toList();
+        TransactionUtils.afterCommit(() -> {
+            ids.forEach(byId::forget);
+            emails.forEach(byEmail::forget);
+        });
+    }
+
+    public long getQueries() {
+        return byId.getExecuted() + byEmail.getExecuted();
+    }
+
+    public long getCoalesced() {
+        return byId.getShared() + byEmail.getShared();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "id", byId);
+        bind(registry, "email", byEmail);
+    }
+
+    private static void bind(MeterRegistry registry, String key, SingleFlight<String, Optional<Member>> flight) {
+        FunctionCounter.builder("kitchensink.member-lookup.queries", flight, SingleFlight::getExecuted)
+                .description("Member lookups sent to the repository")
+                .tag("key", key)
+                .register(registry);
+        FunctionCounter.builder("kitchensink.member-lookup.coalesced", flight, SingleFlight::getShared)
+                .description("Member lookups answered by a query already in flight")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    private static Optional<Member> copy(Optional<Member> member) {
+        return member.map(Member::copy);
+    }
+}
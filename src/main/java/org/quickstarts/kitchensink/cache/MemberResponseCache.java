@@ -0,0 +1,122 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.quickstarts.kitchensink.config.ResponseCacheProperties;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.quickstarts.kitchensink.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class MemberResponseCache {
+    private final ResponseCacheProperties responseCacheProperties;
+
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a load that raced with one is not cached.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public MemberResponseCache(ResponseCacheProperties responseCacheProperties) {
+        this.responseCacheProperties = responseCacheProperties;
+    }
+
+    public CachedResponse get(String id) {
+        if (!responseCacheProperties.isEnabled()) {
+            return null;
+        }
+        CachedResponse cachedResponse = responses.get(id);
+        if (cachedResponse == null) {
+            return null;
+        }
+        if (cachedResponse.expiresAt() < System.currentTimeMillis()) {
+            responses.remove(id, cachedResponse);
+            return null;
+        }
+        return cachedResponse;
+    }
+
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    // Responses that will not be cached are returned without a gzip copy, so they are not compressed for nothing.
+    public CachedResponse put(String id, String eTag, byte[] json, long stamp) {
+        long expiresAt = System.currentTimeMillis() + responseCacheProperties.getTtl().toMillis();
+        if (!responseCacheProperties.isEnabled() || invalidations.get() != stamp) {
+            return new CachedResponse(eTag, json, null, expiresAt);
+        }
+        CachedResponse cachedResponse = new CachedResponse(eTag, json,
+                responseCacheProperties.isGzip() ? gzip(json) : null, expiresAt);
+
+        if (responses.size() >= responseCacheProperties.getMaxEntries()) {
+            Iterator<String> iterator = responses.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        responses.put(id, cachedResponse);
+        if (invalidations.get() != stamp) {
+            responses.remove(id, cachedResponse);
+        }
+        return cachedResponse;
+    }
+
+    public void invalidate(String id) {
+        invalidations.incrementAndGet();
+        if (id != null) {
+            responses.remove(id);
+        }
+    }
+
+    public void invalidateAfterCommit(String id) {
+        TransactionUtils.afterCommit(() -> invalidate(id));
+    }
+
+    public void invalidateAll(Collection<String> ids) {
+        invalidations.incrementAndGet();
+        ids.forEach(responses::remove);
+    }
+
+    public void invalidateAllAfterCommit(Collection<String> ids) {
+        TransactionUtils.afterCommit(() -> invalidateAll(ids));
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        responses.clear();
+    }
+
+    public int size() {
+        return responses.size();
+    }
+
+    // The relay delivers every instance's changes, so deletes and deactivations made elsewhere are dropped too.
+    @EventListener
+    public void onMemberChange(MemberChangeEvent event) {
+        invalidate(event.getMemberId());
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    public record CachedResponse(String eTag, byte[] json, byte[] gzip, long expiresAt) {
+    }
+}
@@ -0,0 +1,290 @@
+package org.quickstarts.kitchensink.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.config.MemberSearchProperties;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over visible members' names, emails and phone numbers. Each field keeps its tokens in a
+ * sorted map, so the tokens starting with a query term are one contiguous range, as in a trie. Every term of a query
+ * must match some field; exact token matches outrank prefixes, prefixes outrank one-typo matches, and names outrank
+ * emails outrank phone numbers. The index is loaded in change sequence order on startup and then follows member
+ * change events, ignoring any that are older than what it holds. Reads take no locks; updates are serialized.
+ */
+@Slf4j
+@Component
+public class MemberSearchIndex {
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+    private static final int FUZZY_MIN_LENGTH = 4;
+
+    enum Field {
+        NAME(3), EMAIL(2), PHONE(1);
+
+        private final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final MemberRepository memberRepository;
+    private final MemberSearchProperties memberSearchProperties;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Field, NavigableMap<String, Set<String>>> postings = new EnumMap<>(Field.class);
+    private volatile boolean ready;
+
+    @Autowired
+    public MemberSearchIndex(MemberRepository memberRepository, MemberSearchProperties memberSearchProperties) {
+        this.memberRepository = memberRepository;
+        this.memberSearchProperties = memberSearchProperties;
+        for (Field field : Field.values()) {
+            postings.put(field, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    public boolean isReady() {
+        return ready && memberSearchProperties.isEnabled();
+    }
+
+    public int size() {
+        return (int) entries.values().stream().filter(entry -> entry.member() != null).count();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        if (memberSearchProperties.isEnabled()) {
+            Thread.ofVirtual().name("member-search-build").start(this::build);
+        }
+    }
+
+    void build() {
+        try {
+            long changeSeq = 0;
+            List<Member> batch;
+            do {
+                batch = memberRepository.findByChangeSeqGreaterThan(changeSeq,
+                        PageRequest.of(0, memberSearchProperties.getBuildBatchSize(), Sort.by("changeSeq")));
+                batch.forEach(this::apply);
+                if (!batch.isEmpty()) {
+                    changeSeq = batch.getLast().getChangeSeq();
+                }
+            } while (batch.size() == memberSearchProperties.getBuildBatchSize());
+            ready = true;
+            log.info("Member search index built with {} members", size());
+        } catch (Exception e) {
+            log.error("Could not build member search index, searching MongoDB instead: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onMemberChange(MemberChangeEvent event) {
+        Member member = new Member(event.getName(), event.getEmail(), event.getPhoneNumber());
+        member.setId(event.getMemberId());
+        member.setStatus(event.getStatus());
+        member.setDeleted(event.isDeleted());
+        member.setChangeSeq(event.getChangeSeq());
+        apply(member);
+    }
+
+    // Indexes the member's state unless the index already holds a newer one. Hidden members keep a token-less entry.
+    public synchronized void apply(Member member) {
+        Entry existing = entries.get(member.getId());
+        if (existing != null && existing.changeSeq() >= member.getChangeSeq()) {
+            return;
+        }
+        if (existing != null) {
+            existing.tokens().forEach((field, tokens) -> tokens.forEach(token -> removePosting(field, token, member.getId())));
+        }
+        if (member.isDeleted() || !member.isActive()) {
+            entries.put(member.getId(), new Entry(null, member.getChangeSeq(), Map.of()));
+            return;
+        }
+        Map<Field, Set<String>> tokens = tokenize(member);
+        tokens.forEach((field, fieldTokens) -> fieldTokens.forEach(token -> postings.get(field)
+                .computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet())
+                .add(member.getId())));
+        entries.put(member.getId(), new Entry(member.copy(), member.getChangeSeq(), tokens));
+    }
+
+    public List<Member> search(String query, int limit) {
+        long deadline = System.nanoTime() + memberSearchProperties.getBudget().toNanos();
+        Map<String, Integer> scores = null;
+        for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            // An empty term would prefix-match every token
+            if (term.isEmpty()) {
+                continue;
+            }
+            Map<String, Integer> termScores = match(term, limit, deadline);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        if (scores == null) {
+            return List.of();
+        }
+
+        List<Member> ranked = new ArrayList<>();
+        Map<String, Integer> finalScores = scores;
+        finalScores.keySet().stream()
+                .map(entries::get)
+                .filter(entry -> entry != null && entry.member() != null)
+                .map(Entry::member)
+                .sorted(Comparator.comparing((Member member) -> -finalScores.get(member.getId()))
+                        .thenComparing(Member::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                        .thenComparing(Member::getId))
+                .limit(limit)
+                .forEach(member -> ranked.add(member.copy()));
+        return ranked;
+    }
+
+    private Map<String, Integer> match(String term, int limit, long deadline) {
+        Map<String, Integer> scores = new HashMap<>();
+        for (Field field : Field.values()) {
+            String token = field == Field.PHONE ? term.replaceAll("[^0-9]", "") : term;
+            if (token.isEmpty()) {
+                continue;
+            }
+            NavigableMap<String, Set<String>> range = postings.get(field)
+                    .subMap(token, true, token + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Set<String>> posting : range.entrySet()) {
+                int score = field.weight * (posting.getKey().equals(token) ? EXACT : PREFIX);
+                posting.getValue().forEach(id -> scores.merge(id, score, Math::max));
+                if (scores.size() >= memberSearchProperties.getMaxCandidates() || System.nanoTime() > deadline) {
+                    return scores;
+                }
+            }
+        }
+        if (scores.size() < limit && term.length() >= FUZZY_MIN_LENGTH) {
+            matchFuzzy(term, scores, deadline);
+        }
+        return scores;
+    }
+
+    // Tokens sharing the term's first letter whose prefix is within one edit of the term.
+    private void matchFuzzy(String term, Map<String, Integer> scores, long deadline) {
+        for (Field field : List.of(Field.NAME, Field.EMAIL)) {
+            String first = term.substring(0, 1);
+            NavigableMap<String, Set<String>> range = postings.get(field)
+                    .subMap(first, true, first + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Set<String>> posting : range.entrySet()) {
+                if (System.nanoTime() > deadline) {
+                    return;
+                }
+                if (fuzzyPrefix(term, posting.getKey())) {
+                    int score = field.weight * FUZZY;
+                    posting.getValue().forEach(id -> scores.merge(id, score, Math::max));
+                }
+            }
+        }
+    }
+
+    private void removePosting(Field field, String token, String id) {
+        postings.get(field).computeIfPresent(token, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    static Map<Field, Set<String>> tokenize(Member member) {
+        Map<Field, Set<String>> tokens = new EnumMap<>(Field.class);
+        tokens.put(Field.NAME, words(member.getName()));
+        Set<String> emailTokens = new HashSet<>();
+        if (member.getEmail() != null) {
+            String email = member.getEmail().toLowerCase(Locale.ROOT);
+            emailTokens.add(email);
+            int at = email.indexOf('@');
+            if (at > 0) {
+                emailTokens.add(email.substring(at + 1));
+                emailTokens.addAll(words(email.substring(0, at)));
+            }
+        }
+        tokens.put(Field.EMAIL, emailTokens);
+        String phone = member.getPhoneNumber() == null ? "" : member.getPhoneNumber().replaceAll("[^0-9]", "");
+        tokens.put(Field.PHONE, phone.isEmpty() ? Set.of() : Set.of(phone));
+        return tokens;
+    }
+
+    private static Set<String> words(String value) {
+        Set<String> words = new HashSet<>();
+        if (value != null) {
+            for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    static boolean fuzzyPrefix(String term, String token) {
+        for (int length = term.length() - 1; length <= term.length() + 1; length++) {
+            if (length <= token.length() && withinOneEdit(term, token.substring(0, length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean withinOneEdit(String left, String right) {
+        if (Math.abs(left.length() - right.length()) > 1) {
+            return false;
+        }
+        int i = 0;
+        int j = 0;
+        boolean edited = false;
+        while (i < left.length() && j < right.length()) {
+            if (left.charAt(i) == right.charAt(j)) {
+                i++;
+                j++;
+                continue;
+            }
+            if (edited) {
+                return false;
+            }
+            edited = true;
+            if (left.length() > right.length()) {
+                i++;
+            } else if (left.length() < right.length()) {
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        return !edited || (i == left.length() && j == right.length());
+    }
+
+    // member is null while the member is deleted or inactive
+    private record Entry(Member member, long changeSeq, Map<Field, Set<String>> tokens) {
+    }
+}
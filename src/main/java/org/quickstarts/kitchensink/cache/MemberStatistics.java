@@ -0,0 +1,164 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.bson.types.ObjectId;
+import org.quickstarts.kitchensink.config.MemberStatsProperties;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.MemberStatsDTO;
+import org.quickstarts.kitchensink.repository.MemberQueryRepository;
+import org.quickstarts.kitchensink.util.TransactionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Member counts kept in memory: members per status, deleted members and registrations per UTC day. This instance's
+ * write paths move the counts after commit; {@link #reconcile} replaces them with counts aggregated from the database,
+ * which also picks up other instances' writes. Changes recorded while an aggregation runs are carried over on top of
+ * it only if the aggregation read the member before the change: it did when the change's sequence is above both the
+ * committed mark taken before aggregating and the sequence the aggregation saw on the member.
+ * Reads copy a few counters and never touch the database.
+ */
+@Component
+public class MemberStatistics {
+    private final MemberStatsProperties memberStatsProperties;
+
+    private final Map<MemberStatus, Long> byStatus = new EnumMap<>(MemberStatus.class);
+    private long deleted;
+    private final NavigableMap<LocalDate, Long> registrations = new TreeMap<>();
+    // Changes recorded since the reconciliation in progress started; null when none is
+    private List<Change> pending;
+    private Instant reconciledAt;
+    private Instant updatedAt;
+    private volatile MemberStatsDTO stats;
+
+    @Autowired
+    public MemberStatistics(MemberStatsProperties memberStatsProperties) {
+        this.memberStatsProperties = memberStatsProperties;
+        for (MemberStatus status : MemberStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        publish();
+    }
+
+    public MemberStatsDTO getStats() {
+        return stats;
+    }
+
+    // Records a new member (before is null) or a member's change from before to after once the write commits.
+    public void recordAfterCommit(Member before, Member after) {
+        Change change = change(before, after);
+        TransactionUtils.afterCommit(() -> record(List.of(change)));
+    }
+
+    // Pairs befores and afters by position.
+    public void recordAllAfterCommit(List<Member> befores, List<Member> afters) {
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < afters.size(); i++) {
+            changes.add(change(befores.get(i), afters.get(i)));
+        }
+        TransactionUtils.afterCommit(() -> record(changes));
+    }
+
+    // Called before the aggregations run, so changes they may miss are kept and applied on top of their counts.
+    public synchronized void startReconciliation() {
+        pending = new ArrayList<>();
+    }
+
+    public synchronized void cancelReconciliation() {
+        pending = null;
+    }
+
+    // countedUpTo is the committed change sequence mark taken before the aggregation ran; every change at or below it
+    // is in the counts.
+    public synchronized void reconcile(MemberQueryRepository.MemberCounts counts, long countedUpTo) {
+        byStatus.replaceAll((status, count) -> 0L);
+        deleted = 0;
+        for (MemberQueryRepository.StateCount count : counts.states()) {
+            if (count.deleted()) {
+                deleted += count.count();
+            } else if (count.status() != null) {
+                byStatus.merge(count.status(), count.count(), Long::sum);
+            }
+        }
+        registrations.clear();
+        registrations.putAll(counts.registrations());
+        if (pending != null) {
+            for (Change change : pending) {
+                if (change.changeSeq() > counts.changeSeqs().getOrDefault(change.id(), countedUpTo)) {
+                    apply(change);
+                }
+            }
+            pending = null;
+        }
+        reconciledAt = Instant.now();
+        updatedAt = reconciledAt;
+        publish();
+    }
+
+    // First day of the registration window.
+    public LocalDate registrationsSince() {
+        return LocalDate.now(ZoneOffset.UTC).minusDays(memberStatsProperties.getRegistrationDays() - 1L);
+    }
+
+    private synchronized void record(List<Change> changes) {
+        changes.forEach(this::apply);
+        if (pending != null) {
+            pending.addAll(changes);
+        }
+        updatedAt = Instant.now();
+        publish();
+    }
+
+    private void apply(Change change) {
+        if (change.from() == null) {
+            registrations.merge(change.registeredOn(), 1L, Long::sum);
+        } else {
+            count(change.from(), -1);
+        }
+        count(change.to(), 1);
+    }
+
+    private void count(State state, long delta) {
+        if (state.deleted()) {
+            deleted += delta;
+        } else if (state.status() != null) {
+            byStatus.merge(state.status(), delta, Long::sum);
+        }
+    }
+
+    // Reads get an immutable copy rebuilt on every change, so they cost one volatile read.
+    private void publish() {
+        registrations.headMap(registrationsSince()).clear();
+        stats = new MemberStatsDTO(new EnumMap<>(byStatus), deleted, new LinkedHashMap<>(registrations),
+                reconciledAt, updatedAt);
+    }
+
+    // States are captured when the change is recorded; the members may be changed again before it commits.
+    private static Change change(Member before, Member after) {
+        LocalDate registeredOn = after.getId() != null && ObjectId.isValid(after.getId())
+                ? LocalDate.ofInstant(new ObjectId(after.getId()).getDate().toInstant(), ZoneOffset.UTC)
+                : LocalDate.now(ZoneOffset.UTC);
+        return new Change(after.getId(), after.getChangeSeq(), before == null ? null : State.of(before), State.of(after),
+                registeredOn);
+    }
+
+    private record State(MemberStatus status, boolean deleted) {
+        static State of(Member member) {
+            return new State(member.getStatus(), member.isDeleted());
+        }
+    }
+
+    private record Change(String id, long changeSeq, State from, State to, LocalDate registeredOn) {
+    }
+}
@@ -0,0 +1,23 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class MemberVersionTracker {
+    public static final long UNKNOWN = -1;
+
+    // Committed mark of member change sequences seen by this instance: every write at or below it has landed, so it
+    // moves again once an earlier write lands behind a later one. The mark never goes back, so older reports are
+    // ignored.
+    private final AtomicLong version = new AtomicLong(UNKNOWN);
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void advance(long committedChangeSeq) {
+        version.accumulateAndGet(committedChangeSeq, Math::max);
+    }
+}
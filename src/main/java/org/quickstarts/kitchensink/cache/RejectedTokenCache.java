@@ -0,0 +1,57 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.quickstarts.kitchensink.config.RejectedTokenCacheProperties;
+import org.quickstarts.kitchensink.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Digests of bearer tokens that recently failed verification, so replays are refused without parsing them again.
+@Component
+public class RejectedTokenCache {
+    private final RejectedTokenCacheProperties rejectedTokenCacheProperties;
+
+    private final Map<TokenDigest, Long> rejected = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RejectedTokenCache(RejectedTokenCacheProperties rejectedTokenCacheProperties) {
+        this.rejectedTokenCacheProperties = rejectedTokenCacheProperties;
+    }
+
+    public boolean contains(String token) {
+        if (!rejectedTokenCacheProperties.isEnabled()) {
+            return false;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        Long expiresAt = rejected.get(digest);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt < System.currentTimeMillis()) {
+            rejected.remove(digest, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    public void add(String token) {
+        if (!rejectedTokenCacheProperties.isEnabled()) {
+            return;
+        }
+        if (rejected.size() >= rejectedTokenCacheProperties.getMaxEntries()) {
+            Iterator<TokenDigest> iterator = rejected.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        rejected.put(TokenDigest.of(token), System.currentTimeMillis() + rejectedTokenCacheProperties.getTtl().toMillis());
+    }
+
+    public int size() {
+        return rejected.size();
+    }
+}
@@ -0,0 +1,57 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token generation per user. A token is revoked once its generation is below the user's; checking that is a
+ * single map read after the first lookup. Generations only move forward, so a stale or racing update never un-revokes.
+ */
+@Component
+public class TokenGenerationCache {
+    private final UserRepository userRepository;
+
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenGenerationCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public long current(String username) {
+        Long generation = generations.get(username);
+        return generation != null ? generation : load(username);
+    }
+
+    public boolean isCurrent(String username, long generation) {
+        long current = current(username);
+        if (generation > current) {
+            // Issued by an instance that saw a bump this one has not picked up yet
+            advance(username, generation);
+        }
+        return generation >= current;
+    }
+
+    public void advance(String username, long generation) {
+        generations.merge(username, generation, Math::max);
+    }
+
+    public void clear() {
+        generations.clear();
+    }
+
+    public int size() {
+        return generations.size();
+    }
+
+    private long load(String username) {
+        User user = userRepository.findByEmail(username);
+        advance(username, user == null ? 0 : user.getTokenGeneration());
+        return generations.get(username);
+    }
+}
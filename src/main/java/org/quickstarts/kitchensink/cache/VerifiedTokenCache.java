@@ -0,0 +1,154 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.quickstarts.kitchensink.config.VerifiedTokenCacheProperties;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.quickstarts.kitchensink.util.TokenDigest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bearer tokens that already passed verification, keyed by digest, so repeat requests skip signature checks. Entries
+ * expire at the token's own {@code exp}. The cache is split into access-ordered segments, each an LRU bounded to its
+ * share of max-entries and guarded by its own lock.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final int SEGMENTS = 16;
+    // Map node, digest and VerifiedToken headers, before the username's characters
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final VerifiedTokenCacheProperties verifiedTokenCacheProperties;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public VerifiedTokenCache(VerifiedTokenCacheProperties verifiedTokenCacheProperties) {
+        this.verifiedTokenCacheProperties = verifiedTokenCacheProperties;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public VerifiedToken get(String token) {
+        if (!verifiedTokenCacheProperties.isEnabled()) {
+            return null;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        Segment segment = segmentFor(digest);
+        VerifiedToken verified;
+        synchronized (segment) {
+            verified = segment.get(digest);
+            if (verified != null && isExpired(verified, System.currentTimeMillis())) {
+                segment.remove(digest);
+                expirations.increment();
+                verified = null;
+            }
+        }
+        (verified == null ? misses : hits).increment();
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!verifiedTokenCacheProperties.isEnabled()) {
+            return;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        Segment segment = segmentFor(digest);
+        synchronized (segment) {
+            segment.put(digest, verified);
+        }
+    }
+
+    // Drops expired entries that were never looked up again, so idle tokens do not sit in the cache until evicted.
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Iterator<VerifiedToken> iterator = segment.values().iterator();
+                while (iterator.hasNext()) {
+                    if (isExpired(iterator.next(), now)) {
+                        iterator.remove();
+                        purged++;
+                    }
+                }
+            }
+        }
+        expirations.add(purged);
+        return purged;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        int size = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+                for (VerifiedToken verified : segment.values()) {
+                    bytes += ENTRY_OVERHEAD_BYTES + verified.username().length();
+                }
+            }
+        }
+        return new Stats(size, verifiedTokenCacheProperties.getMaxEntries(), hits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum(), bytes);
+    }
+
+    private Segment segmentFor(TokenDigest digest) {
+        return segments[(int) (digest.low() & (SEGMENTS - 1))];
+    }
+
+    private static boolean isExpired(VerifiedToken verified, long now) {
+        return verified.expiresAt() * 1000 <= now;
+    }
+
+    private class Segment extends LinkedHashMap<TokenDigest, VerifiedToken> {
+        Segment() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TokenDigest, VerifiedToken> eldest) {
+            int capacity = Math.max(1, verifiedTokenCacheProperties.getMaxEntries() / SEGMENTS);
+            if (size() <= capacity) {
+                return false;
+            }
+            if (isExpired(eldest.getValue(), System.currentTimeMillis())) {
+                expirations.increment();
+            } else {
+                evictions.increment();
+            }
+            return true;
+        }
+    }
+
+    public record Stats(int size, int maxEntries, long hits, long misses, long evictions, long expirations,
+                        long estimatedBytes) {
+    }
+}
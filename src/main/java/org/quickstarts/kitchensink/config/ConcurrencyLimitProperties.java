@@ -0,0 +1,24 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private int initialLimit = 200;
+    private int minLimit = 20;
+    private int maxLimit = 2_000;
+    // How far the recent RTT may exceed the long-term RTT before the limit shrinks
+    private double rttTolerance = 1.5;
+    private double smoothing = 0.2;
+    // Number of sample windows the long-term RTT averages over
+    private int longWindow = 600;
+    private Duration window = Duration.ofSeconds(1);
+    private int windowSamples = 100;
+}
@@ -0,0 +1,20 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.log-store")
+public class LogStoreProperties {
+    private Path directory = Path.of("data");
+    private DataSize initialSize = DataSize.ofMegabytes(16);
+    private boolean syncWrites = false;
+    private Duration compactionInterval = Duration.ofMinutes(5);
+    private double compactionThreshold = 0.5;
+}
@@ -0,0 +1,17 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.member-batch")
+public class MemberBatchProperties {
+    private boolean enabled = false;
+    // How long the first lookup of a batch waits for others to join it
+    private Duration window = Duration.ofNanos(500_000);
+    private int maxBatchSize = 100;
+}
@@ -0,0 +1,15 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.member-bulk")
+public class MemberBulkProperties {
+    // Most ids a single batch request may name
+    private int maxIds = 100;
+    // Members read, sequenced and written per bulk write when a bulk operation selects by filter
+    private int batchSize = 500;
+}
@@ -0,0 +1,20 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.member-search")
+public class MemberSearchProperties {
+    // When off, or until the index is built, search falls back to MongoDB's text index
+    private boolean enabled = true;
+    // Time a search may spend matching before it ranks what it has
+    private Duration budget = Duration.ofMillis(50);
+    // Members a single query term may match before matching stops
+    private int maxCandidates = 10_000;
+    private int buildBatchSize = 1_000;
+}
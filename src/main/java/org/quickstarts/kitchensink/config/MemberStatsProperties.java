@@ -0,0 +1,13 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.member-stats")
+public class MemberStatsProperties {
+    // Days of registrations kept, today included (UTC)
+    private int registrationDays = 30;
+}
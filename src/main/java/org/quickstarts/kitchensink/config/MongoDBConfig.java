@@ -1,15 +1,36 @@
 package org.quickstarts.kitchensink.config;
 
 import com.mongodb.client.MongoClient;
+import org.quickstarts.kitchensink.repository.QueryShapeGuard;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MONGO_PROFILE_EXPRESSION;
+
 @Configuration
+@Profile(MONGO_PROFILE_EXPRESSION)
 public class MongoDBConfig {
 
     @Bean
     public MongoTemplate mongoTemplate(MongoClient mongoClient) {
         return new MongoTemplate(mongoClient, "kitchensink");
     }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryShapeGuardCustomizer(QueryShapeGuard queryShapeGuard) {
+        return settings -> settings.addCommandListener(queryShapeGuard);
+    }
+
+    // Multi-document transactions need a replica set, so they are opt-in. Change events do not need them: they are
+    // stamped on the member document by the same write.
+    @Bean
+    @ConditionalOnProperty(prefix = "kitchensink.outbox", name = "transactional", havingValue = "true")
+    public MongoTransactionManager transactionManager(MongoTemplate mongoTemplate) {
+        return new MongoTransactionManager(mongoTemplate.getMongoDatabaseFactory());
+    }
 }
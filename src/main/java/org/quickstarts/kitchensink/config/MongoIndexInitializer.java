@@ -0,0 +1,133 @@
+package org.quickstarts.kitchensink.config;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.RefreshToken;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.service.SequenceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MONGO_PROFILE_EXPRESSION;
+
+@Slf4j
+@Component
+@Profile(MONGO_PROFILE_EXPRESSION)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kitchensink.mongo", name = "ensure-indexes", havingValue = "true", matchIfMissing = true)
+public class MongoIndexInitializer {
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final SequenceService sequenceService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        ensureIndexes();
+        try {
+            backfillChangeSequence();
+        } catch (Exception e) {
+            log.error("Could not backfill member change sequences: {}", e.getMessage());
+        }
+        try {
+            backfillEmailDomain();
+        } catch (Exception e) {
+            log.error("Could not backfill member email domains: {}", e.getMessage());
+        }
+    }
+
+    // Each index is ensured on its own, so one that conflicts with an existing definition does not keep the rest
+    // from being built. List queries hint their sort index only once it exists.
+    void ensureIndexes() {
+        log.info("Ensuring MongoDB indexes");
+        ensureIndex(Member.class, new Index().on("change_seq", Sort.Direction.ASC).named("change_seq"));
+        // Lookups by email compare exactly, so they cannot use the collated email_ci index
+        ensureIndex(Member.class, new Index().on("email", Sort.Direction.ASC).named("email"));
+        // Bulk operations page through a domain's members by _id
+        ensureIndex(Member.class, new Index().on("email_domain", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named("email_domain"));
+        // One index per list sort order, built with the collation list queries use so they can walk it
+        Collation collation = Collation.of(MemberSortKey.COLLATION_LOCALE).strength(MemberSortKey.COLLATION_STRENGTH);
+        for (MemberSortKey sortKey : MemberSortKey.values()) {
+            if (sortKey.isCollated()) {
+                Index index = new Index().named(sortKey.getIndexName()).collation(collation);
+                sortKey.getFields().forEach(field -> index.on(field, Sort.Direction.ASC));
+                ensureIndex(Member.class, index);
+            }
+        }
+        // Fallback for member search while the in-memory search index is disabled or still building
+        ensureIndex(Member.class, TextIndexDefinition.builder()
+                .named("member_text")
+                .onField("name", 3F)
+                .onField("email", 2F)
+                .onField("phone_number")
+                .build());
+        ensureIndex(User.class, new Index().on("email", Sort.Direction.ASC).named("email"));
+        ensureIndex(User.class, new Index().on("updatedAt", Sort.Direction.ASC).named("updated_at"));
+        ensureIndex(RefreshToken.class, new Index().on("expires_at", Sort.Direction.ASC).expire(Duration.ZERO).named("expires_at_ttl"));
+    }
+
+    private void ensureIndex(Class<?> entityClass, IndexDefinition index) {
+        try {
+            mongoTemplate.indexOps(entityClass).ensureIndex(index);
+        } catch (Exception e) {
+            log.error("Could not ensure index {} on {}: {}", index.getIndexOptions().get("name"),
+                    mongoTemplate.getCollectionName(entityClass), e.getMessage());
+        }
+    }
+
+    // Members written before change sequences existed get one, so delta sync from zero returns them.
+    void backfillChangeSequence() {
+        Query legacyMembers = new Query(Criteria.where("change_seq").exists(false)).limit(BACKFILL_BATCH_SIZE);
+        List<Member> batch;
+        while (!(batch = mongoTemplate.find(legacyMembers, Member.class)).isEmpty()) {
+            long lastChangeSeq = sequenceService.next(MEMBER_SEQUENCE, batch.size());
+            long changeSeq = lastChangeSeq - batch.size();
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Member.class);
+            for (Member member : batch) {
+                bulkOperations.updateOne(new Query(Criteria.where("_id").is(member.getId())), Update.update("change_seq", ++changeSeq));
+            }
+            try {
+                bulkOperations.execute();
+            } finally {
+                sequenceService.release(MEMBER_SEQUENCE, lastChangeSeq);
+            }
+            log.info("Backfilled change sequence for {} members", batch.size());
+        }
+    }
+
+    // Members written before email_domain existed get it, the same way Member.setEmail derives it.
+    void backfillEmailDomain() {
+        Document domain = new Document("$toLower", new Document("$arrayElemAt",
+                List.of(new Document("$split", List.of("$email", "@")), -1)));
+        UpdateResult result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Member.class)).updateMany(
+                Filters.and(Filters.exists("email_domain", false), Filters.type("email", BsonType.STRING)),
+                List.of(new Document("$set", new Document("email_domain", domain))));
+        if (result.getModifiedCount() > 0) {
+            log.info("Backfilled email domain for {} members", result.getModifiedCount());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.outbox")
+public class OutboxProperties {
+    private boolean transactional = false;
+    private int batchSize = 100;
+}
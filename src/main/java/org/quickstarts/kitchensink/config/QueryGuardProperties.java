@@ -0,0 +1,28 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.query-guard")
+public class QueryGuardProperties {
+    private Mode mode = Mode.WARN;
+    // Collections whose query shapes are explained and checked
+    private List<String> collections = List.of("member", "user");
+    // Longest a strict-mode repository call waits for a pending shape's verdict before letting it pass
+    private Duration explainTimeout = Duration.ofSeconds(5);
+
+    public enum Mode {
+        // Nothing is explained or recorded
+        OFF,
+        // Collection scans are logged and reported
+        WARN,
+        // Repository calls that ran a collection scan also fail
+        STRICT
+    }
+}
@@ -0,0 +1,36 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxEntries = 100_000;
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String method;
+        private String path;
+        // JSON body field holding the username; leave unset to limit by client IP only
+        private String usernameField;
+        private Budget perIp;
+        private Budget perUsername;
+    }
+
+    // Up to capacity requests at once, refilled at per-minute requests a minute.
+    @Getter
+    @Setter
+    public static class Budget {
+        private int capacity;
+        private int perMinute;
+    }
+}
@@ -0,0 +1,13 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.refresh-token-cache")
+public class RefreshTokenCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+}
@@ -0,0 +1,16 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.rejected-token-cache")
+public class RejectedTokenCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,17 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    private Duration ttl = Duration.ofMinutes(5);
+    private boolean gzip = false;
+}
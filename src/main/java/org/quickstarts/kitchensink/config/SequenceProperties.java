@@ -0,0 +1,15 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.sequence")
+public class SequenceProperties {
+    // How long an unreleased block of sequences holds back the committed mark, e.g. after its writer crashed
+    private Duration lease = Duration.ofSeconds(30);
+}
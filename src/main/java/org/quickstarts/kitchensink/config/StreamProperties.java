@@ -0,0 +1,17 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.stream")
+public class StreamProperties {
+    private int replayBufferSize = 1000;
+    // Events queued for one slow subscriber before it is disconnected
+    private int subscriberQueueSize = 256;
+    private Duration timeout = Duration.ofMinutes(30);
+}
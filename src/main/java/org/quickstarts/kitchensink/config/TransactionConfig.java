@@ -0,0 +1,20 @@
+package org.quickstarts.kitchensink.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class TransactionConfig {
+
+    // Bulk operations run each page through this, so a page commits on its own when transactions are enabled and
+    // simply runs otherwise.
+    @Bean
+    public TransactionOperations bulkTransactions(ObjectProvider<PlatformTransactionManager> transactionManager) {
+        PlatformTransactionManager manager = transactionManager.getIfAvailable();
+        return manager == null ? TransactionOperations.withoutTransaction() : new TransactionTemplate(manager);
+    }
+}
@@ -0,0 +1,16 @@
+package org.quickstarts.kitchensink.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kitchensink.verified-token-cache")
+public class VerifiedTokenCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    private Duration reportInterval = Duration.ofMinutes(1);
+}
@@ -1,5 +1,7 @@
 package org.quickstarts.kitchensink.config;
 
+import jakarta.servlet.DispatcherType;
+import org.quickstarts.kitchensink.filter.ConcurrencyLimitFilter;
 import org.quickstarts.kitchensink.filter.JWTAuthenticationFilter;
 import org.quickstarts.kitchensink.filter.JwtAuthenticationEntryPoint;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +27,7 @@ public class WebSecurityConfig {
     @Bean
     protected SecurityFilterChain securityFilterChain(HttpSecurity http,
                                                       JWTAuthenticationFilter jwtAuthenticationFilter,
+                                                      ConcurrencyLimitFilter concurrencyLimitFilter,
                                                       JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint
     ) throws Exception {
         return http
@@ -39,11 +42,13 @@ public class WebSecurityConfig {
                 )
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(
-                        request -> request.requestMatchers("/users/**", "/auth/**").permitAll()
+                        request -> request.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // completes SSE streams
+                        .requestMatchers("/users/**", "/auth/**", "/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JWTAuthenticationFilter.class) // shed load before token work
                 .exceptionHandling(configurer -> configurer.authenticationEntryPoint(jwtAuthenticationEntryPoint))
                 .build();
     }
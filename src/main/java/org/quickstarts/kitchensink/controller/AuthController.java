@@ -3,9 +3,12 @@ package org.quickstarts.kitchensink.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
 import org.quickstarts.kitchensink.pojo.AuthRequestDTO;
 import org.quickstarts.kitchensink.pojo.AuthResponseDTO;
+import org.quickstarts.kitchensink.pojo.RefreshRequestDTO;
 import org.quickstarts.kitchensink.service.JwtTokenService;
+import org.quickstarts.kitchensink.service.RefreshTokenService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +28,7 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenService jwtTokenService;
+    private final RefreshTokenService refreshTokenService;
 
     @RequestMapping(value = "/token", method = RequestMethod.POST)
     public ResponseEntity<?> authenticate(@RequestBody @Valid AuthRequestDTO authRequestDTO) {
@@ -45,4 +49,16 @@ public class AuthController {
 
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Bad Credentials");
     }
+
+    // Swaps a refresh token for a new pair without re-checking the password; each refresh token works once.
+    @RequestMapping(value = "/refresh", method = RequestMethod.POST)
+    public ResponseEntity<?> refresh(@RequestBody @Valid RefreshRequestDTO refreshRequestDTO) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.refresh(refreshRequestDTO.getRefreshToken()));
+        } catch (InvalidTokenException e) {
+            log.debug("Refresh rejected: {}", e.getMessage());
+        }
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+    }
 }
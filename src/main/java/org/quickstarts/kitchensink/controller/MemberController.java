@@ -1,44 +1,95 @@
 package org.quickstarts.kitchensink.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.MemberResponseCache;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.config.MemberBulkProperties;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
 import org.quickstarts.kitchensink.enums.MemberStatus;
 import org.quickstarts.kitchensink.exception.IllegalOperationException;
 import org.quickstarts.kitchensink.exception.MemberAlreadyExistsException;
 import org.quickstarts.kitchensink.exception.MemberNotFoundException;
 import org.quickstarts.kitchensink.model.Member;
 import org.quickstarts.kitchensink.pojo.ApiResponse;
+import org.quickstarts.kitchensink.pojo.MemberBatchDTO;
+import org.quickstarts.kitchensink.pojo.MemberBulkResultDTO;
+import org.quickstarts.kitchensink.pojo.MemberChangesDTO;
 import org.quickstarts.kitchensink.pojo.MemberDTO;
+import org.quickstarts.kitchensink.pojo.MemberIdsDTO;
+import org.quickstarts.kitchensink.pojo.MemberSelectionDTO;
+import org.quickstarts.kitchensink.pojo.MemberStatsDTO;
+import org.quickstarts.kitchensink.service.MemberChangeStreamService;
 import org.quickstarts.kitchensink.service.MemberRegistrationService;
 import org.quickstarts.kitchensink.service.MemberService;
+import org.quickstarts.kitchensink.util.AcceptEncoding;
+import org.quickstarts.kitchensink.util.MemberFields;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.ID_PATTERN;
 
 @Slf4j
 @Validated
 @RestController
 @RequestMapping("/api/v1/members")
 public class MemberController {
-    private static final String ID_PATTERN = "^[a-fA-F0-9]{24}$";  // Regex for MongoDB ObjectId (24 hex characters)
+    private static final String SYNC_TOKEN_PATTERN = "^[0-9]{1,18}$";  // Change sequence handed out as nextToken
+    private static final int CHANGES_PAGE_SIZE = 500;
 
     private final MemberService memberService;
     private final MemberRegistrationService memberRegistrationService;
+    private final MemberChangeStreamService memberChangeStreamService;
+    private final MemberVersionTracker memberVersionTracker;
+    private final MemberResponseCache memberResponseCache;
+    private final MemberBulkProperties memberBulkProperties;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public MemberController(MemberService memberService, MemberRegistrationService memberRegistrationService) {
+    public MemberController(MemberService memberService,
+                            MemberRegistrationService memberRegistrationService,
+                            MemberChangeStreamService memberChangeStreamService,
+                            MemberVersionTracker memberVersionTracker,
+                            MemberResponseCache memberResponseCache,
+                            MemberBulkProperties memberBulkProperties,
+                            ObjectMapper objectMapper) {
         this.memberService = memberService;
         this.memberRegistrationService = memberRegistrationService;
+        this.memberChangeStreamService = memberChangeStreamService;
+        this.memberVersionTracker = memberVersionTracker;
+        this.memberResponseCache = memberResponseCache;
+        this.memberBulkProperties = memberBulkProperties;
+        this.objectMapper = objectMapper;
     }
 
     @RequestMapping(method = RequestMethod.POST, consumes = "application/json")
@@ -65,39 +116,239 @@ public class MemberController {
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public ResponseEntity<ApiResponse<List<Member>>> listAllMembers() {
+    public ResponseEntity<ApiResponse<List<?>>> listAllMembers(
+            @RequestParam(required = false)
+            String fields,
+
+            @RequestParam(defaultValue = "name")
+            String sort,
+
+            @RequestParam(defaultValue = "asc")
+            @Pattern(regexp = "(?i)asc|desc", message = "Direction must be asc or desc")
+            String direction,
+            WebRequest webRequest
+    ) {
         log.info("Listing all members");
-        List<Member> members = memberService.findAllOrderedByName().stream()
+        Set<String> projection = MemberFields.parse(fields);
+        MemberSortKey sortKey = MemberSortKey.fromParameter(sort);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        // The collection version is the committed mark, read before the members. A page may include writes above
+        // it that landed early; the mark moves past them once the writes below them land, which changes the ETag.
+        long version = memberVersionTracker.getVersion();
+        String eTag = "\"members-" + version + "-" + sortKey.getParameter() + "-" + sortDirection.name().toLowerCase()
+                + eTagSuffix(projection) + "\"";
+        if (version != MemberVersionTracker.UNKNOWN && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        List<Member> members = memberService.findAllSorted(sortKey, sortDirection, projection)
+                .stream()
                 .filter(member -> !member.isDeleted())
                 .toList();
 
         HttpStatus status = HttpStatus.OK;
-        ApiResponse<List<Member>> response = new ApiResponse<>(
+        ApiResponse<List<?>> response = new ApiResponse<>(
             status.value(),
             null,
-            members
+            projection == null ? members : members.stream().map(member -> sparse(member, projection)).toList()
+        );
+
+        return new ResponseEntity<>(response, status);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMemberChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Streaming member changes after event {}", lastEventId);
+        return memberChangeStreamService.subscribe(lastEventId);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, value = "/changes")
+    public ResponseEntity<ApiResponse<MemberChangesDTO>> listMemberChanges(
+            @RequestParam(defaultValue = "0")
+            @Pattern(regexp = SYNC_TOKEN_PATTERN, message = "Invalid sync token")
+            String since
+    ) {
+        log.info("Listing member changes since {}", since);
+        long sinceSeq = Long.parseLong(since);
+        // Read before the members. Writes above this mark may still be in flight and land out of order, so the
+        // token never moves past it.
+        long committedSeq = memberService.getCommittedChangeSeq();
+        List<Member> changedMembers = memberService.findChangedSince(sinceSeq, committedSeq, CHANGES_PAGE_SIZE);
+
+        boolean hasMore = changedMembers.size() == CHANGES_PAGE_SIZE;
+        long nextSeq = hasMore ? changedMembers.getLast().getChangeSeq() : Math.max(sinceSeq, committedSeq);
+        List<Member> members = changedMembers.stream()
+                .filter(member -> !member.isDeleted())
+                .toList();
+        List<String> deletedIds = changedMembers.stream()
+                .filter(Member::isDeleted)
+                .map(Member::getId)
+                .toList();
+
+        HttpStatus status = HttpStatus.OK;
+        ApiResponse<MemberChangesDTO> response = new ApiResponse<>(
+                status.value(),
+                null,
+                new MemberChangesDTO(members, deletedIds, String.valueOf(nextSeq), hasMore)
         );
 
         return new ResponseEntity<>(response, status);
     }
 
     @RequestMapping(method = RequestMethod.GET, value = "/{id}")
-    public ResponseEntity<ApiResponse<Member>> lookupMemberById(
+    public ResponseEntity<byte[]> lookupMemberById(
             @PathVariable
             @Pattern(regexp = ID_PATTERN, message = "Invalid Id format")
-            String id
-    ) throws MemberNotFoundException {
+            String id,
+
+            @RequestParam(required = false)
+            String fields,
+            WebRequest webRequest
+    ) throws MemberNotFoundException, JsonProcessingException {
         log.info("Looking up member with id {}", id);
-        Member member = memberService.findById(id).orElseThrow(MemberNotFoundException::new);
+        Set<String> projection = MemberFields.parse(fields);
+        if (projection != null) {
+            return lookupProjectedMember(id, projection, webRequest);
+        }
+        MemberResponseCache.CachedResponse cachedResponse = memberResponseCache.get(id);
+        if (cachedResponse == null) {
+            long stamp = memberResponseCache.stamp();
+            Member member = memberService.findById(id).orElseThrow(MemberNotFoundException::new);
+            if (member.isDeleted() || !member.isActive()) {
+                throw new MemberNotFoundException();
+            }
+
+            HttpStatus status = HttpStatus.OK;
+            ApiResponse<Member> response = new ApiResponse<>(
+                status.value(),
+                null,
+                member
+            );
+            String eTag = "\"" + member.getId() + "-" + member.getChangeSeq() + "\"";
+            cachedResponse = memberResponseCache.put(id, eTag, objectMapper.writeValueAsBytes(response), stamp);
+        }
+
+        // The gzip body is a different byte sequence, so it carries its own strong ETag.
+        boolean gzip = cachedResponse.gzip() != null
+                && AcceptEncoding.accepts(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING), "gzip");
+        String eTag = gzip ? gzipETag(cachedResponse.eTag()) : cachedResponse.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        // The cached bytes go straight to the response, with no MongoDB call and no object mapping.
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cachedResponse.gzip());
+        }
+        return builder.body(cachedResponse.json());
+    }
+
+    private static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-gz\"";
+    }
+
+    // Projected lookups load and serialize only the requested fields, so they bypass the whole-member response cache.
+    private ResponseEntity<byte[]> lookupProjectedMember(String id, Set<String> fields, WebRequest webRequest)
+            throws MemberNotFoundException, JsonProcessingException {
+        Member member = memberService.findById(id, fields).orElseThrow(MemberNotFoundException::new);
         if (member.isDeleted() || !member.isActive()) {
             throw new MemberNotFoundException();
         }
+        if (webRequest.checkNotModified("\"" + member.getId() + "-" + member.getChangeSeq() + eTagSuffix(fields) + "\"")) {
+            return null;
+        }
 
         HttpStatus status = HttpStatus.OK;
-        ApiResponse<Member> response = new ApiResponse<>(
-            status.value(),
-            null,
-            member
+        ApiResponse<ObjectNode> response = new ApiResponse<>(
+                status.value(),
+                null,
+                sparse(member, fields)
+        );
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(response));
+    }
+
+    private ObjectNode sparse(Member member, Set<String> fields) {
+        ObjectNode node = objectMapper.valueToTree(member);
+        node.retain(fields);
+        return node;
+    }
+
+    // Each field selection is its own representation, so it gets its own ETag.
+    private static String eTagSuffix(Set<String> fields) {
+        return fields == null ? "" : "-" + String.join(".", fields);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, value = "/stats")
+    public ResponseEntity<ApiResponse<MemberStatsDTO>> getMemberStats() {
+        log.info("Reading member statistics");
+
+        HttpStatus status = HttpStatus.OK;
+        ApiResponse<MemberStatsDTO> response = new ApiResponse<>(
+                status.value(),
+                null,
+                memberService.getStats()
+        );
+
+        return new ResponseEntity<>(response, status);
+    }
+
+    @RequestMapping(method = RequestMethod.GET, value = "/search")
+    public ResponseEntity<ApiResponse<List<Member>>> searchMembers(
+            @RequestParam
+            @NotBlank(message = "Search query must not be blank")
+            @Size(min = 2, max = 100, message = "Search query must be 2 to 100 characters")
+            String q,
+
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "Limit must be between 1 and 50")
+            @Max(value = 50, message = "Limit must be between 1 and 50")
+            int limit
+    ) {
+        log.info("Searching members");
+
+        HttpStatus status = HttpStatus.OK;
+        ApiResponse<List<Member>> response = new ApiResponse<>(
+                status.value(),
+                null,
+                memberService.search(q, limit)
+        );
+
+        return new ResponseEntity<>(response, status);
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/batch-get", consumes = "application/json")
+    public ResponseEntity<ApiResponse<MemberBatchDTO>> batchGetMembers(@RequestBody @Valid MemberIdsDTO request) {
+        if (request.getIds().size() > memberBulkProperties.getMaxIds()) {
+            throw new IllegalOperationException("At most " + memberBulkProperties.getMaxIds() + " ids per request");
+        }
+        Set<String> ids = new LinkedHashSet<>(request.getIds());
+        log.info("Looking up {} members by id", ids.size());
+
+        // Same visibility as lookupMemberById: deleted and inactive members are reported missing
+        Map<String, Member> found = memberService.findAllById(ids).stream()
+                .filter(member -> !member.isDeleted() && member.isActive())
+                .collect(Collectors.toMap(Member::getId, Function.identity()));
+        List<Member> members = new ArrayList<>();
+        List<String> missingIds = new ArrayList<>();
+        for (String id : ids) {
+            Member member = found.get(id);
+            if (member != null) {
+                members.add(member);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        HttpStatus status = HttpStatus.OK;
+        ApiResponse<MemberBatchDTO> response = new ApiResponse<>(
+                status.value(),
+                null,
+                new MemberBatchDTO(members, missingIds)
         );
 
         return new ResponseEntity<>(response, status);
@@ -147,8 +398,9 @@ public class MemberController {
         if (existingMember.isDeleted()) {
             throw new IllegalOperationException("Can not perform the action on this user.");
         }
+        Member before = existingMember.copy();
         existingMember.setStatus(status);
-        memberService.save(existingMember);
+        memberService.save(before, existingMember);
 
         HttpStatus httpStatus = HttpStatus.OK;
         ApiResponse<Member> response = new ApiResponse<>(
@@ -159,4 +411,51 @@ public class MemberController {
 
         return new ResponseEntity<>(response, httpStatus);
     }
+
+    @RequestMapping(method = RequestMethod.PATCH, value = "/bulk/status", consumes = "application/json")
+    public ResponseEntity<ApiResponse<MemberBulkResultDTO>> bulkChangeMemberStatus(
+            @RequestParam
+            MemberStatus status,
+
+            @RequestBody @Valid
+            MemberSelectionDTO selection
+    ) {
+        log.info("Bulk changing member status to {}", status);
+        checkSelection(selection);
+        MemberBulkResultDTO result = memberService.bulkChangeStatus(selection, status);
+
+        HttpStatus httpStatus = HttpStatus.OK;
+        ApiResponse<MemberBulkResultDTO> response = new ApiResponse<>(
+                httpStatus.value(),
+                result.getModified() + " of " + result.getMatched() + " matched members marked " + status,
+                result
+        );
+
+        return new ResponseEntity<>(response, httpStatus);
+    }
+
+    @RequestMapping(method = RequestMethod.POST, value = "/bulk/delete", consumes = "application/json")
+    public ResponseEntity<ApiResponse<MemberBulkResultDTO>> bulkDeleteMembers(@RequestBody @Valid MemberSelectionDTO selection) {
+        log.info("Bulk deleting members");
+        checkSelection(selection);
+        MemberBulkResultDTO result = memberService.bulkDelete(selection);
+
+        HttpStatus httpStatus = HttpStatus.OK;
+        ApiResponse<MemberBulkResultDTO> response = new ApiResponse<>(
+                httpStatus.value(),
+                result.getModified() + " of " + result.getMatched() + " matched members deleted",
+                result
+        );
+
+        return new ResponseEntity<>(response, httpStatus);
+    }
+
+    private void checkSelection(MemberSelectionDTO selection) {
+        if ((selection.getIds() == null) == (selection.getEmailDomain() == null)) {
+            throw new IllegalOperationException("Select members by either ids or emailDomain");
+        }
+        if (selection.getIds() != null && selection.getIds().size() > memberBulkProperties.getMaxIds()) {
+            throw new IllegalOperationException("At most " + memberBulkProperties.getMaxIds() + " ids per request");
+        }
+    }
 }
@@ -3,6 +3,7 @@ package org.quickstarts.kitchensink.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
 import org.quickstarts.kitchensink.exception.InvalidPasswordException;
 import org.quickstarts.kitchensink.exception.MemberAlreadyExistsException;
 import org.quickstarts.kitchensink.exception.MemberNotFoundException;
@@ -20,6 +21,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Date;
+
 @Slf4j
 @RestController
 @RequestMapping("/users")
@@ -28,6 +31,7 @@ public class UserController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenGenerationCache tokenGenerationCache;
 
     @RequestMapping(value = "/register", method = RequestMethod.POST)
     public ResponseEntity<ApiResponse<String>> register(@RequestBody @Valid UserSignUpDTO userSignUpDTO) {
@@ -74,8 +78,12 @@ public class UserController {
         }
 
         String encodedNewPassword = passwordEncoder.encode(userPasswordDTO.getPassword());
-        userByEmail.setPassword(encodedNewPassword);
-        userService.saveOrUpdate(userByEmail);
+        // Revokes every token issued under the old password. The write only applies if the password is still the one
+        // checked above, so a concurrent change is not silently overwritten.
+        long tokenGeneration = userRepository
+                .updatePassword(email, currentEncodedPassword, encodedNewPassword, new Date())
+                .orElseThrow(() -> new InvalidPasswordException("Existing password does not match the current password."));
+        tokenGenerationCache.advance(email, tokenGeneration);
 
         HttpStatus status = HttpStatus.OK;
         ApiResponse<String> response = new ApiResponse<>(
@@ -0,0 +1,7 @@
+package org.quickstarts.kitchensink.enums;
+
+public enum MemberChangeType {
+    CREATED,
+    UPDATED,
+    DELETED;
+}
@@ -0,0 +1,64 @@
+package org.quickstarts.kitchensink.enums;
+
+import lombok.Getter;
+import org.quickstarts.kitchensink.exception.IllegalOperationException;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sort orders the member list supports. Each one sorts on the MongoDB fields of exactly one index, ending in _id so
+ * the order is total, and is read through that index in either direction, so MongoDB never sorts in memory. Name and
+ * email compare case-insensitively under the members collation; creation time is the ObjectId.
+ */
+@Getter
+public enum MemberSortKey {
+    NAME("name", "name_ci", true, List.of("name", "_id"),
+            Comparator.comparing(Member::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    EMAIL("email", "email_ci", true, List.of("email", "_id"),
+            Comparator.comparing(Member::getEmail, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    STATUS("status", "status_name_ci", true, List.of("is_active", "name", "_id"),
+            Comparator.comparing(Member::getStatus, Comparator.nullsFirst(Comparator.comparing(MemberStatus::name)))
+                    .thenComparing(Member::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))),
+    CREATED_AT("createdAt", "_id_", false, List.of("_id"), (left, right) -> 0);
+
+    // Locale and strength of the collation the sort indexes are built with; queries must use the same one.
+    public static final String COLLATION_LOCALE = "en";
+    public static final int COLLATION_STRENGTH = 2;
+
+    private final String parameter;
+    private final String indexName;
+    // Whether the index, and so every query sorting on it, uses the members collation
+    private final boolean collated;
+    private final List<String> fields;
+    private final Comparator<Member> comparator;
+
+    MemberSortKey(String parameter, String indexName, boolean collated, List<String> fields, Comparator<Member> comparator) {
+        this.parameter = parameter;
+        this.indexName = indexName;
+        this.collated = collated;
+        this.fields = fields;
+        // ObjectId hex strings order by creation time, like _id itself
+        this.comparator = comparator.thenComparing(Member::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
+    public Sort sort(Sort.Direction direction) {
+        return Sort.by(fields.stream().map(field -> new Sort.Order(direction, field)).toList());
+    }
+
+    public Comparator<Member> comparator(Sort.Direction direction) {
+        return direction.isAscending() ? comparator : comparator.reversed();
+    }
+
+    public static MemberSortKey fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(key -> key.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(() -> new IllegalOperationException("Unknown sort key: " + parameter + ". Allowed keys: "
+                        + Arrays.stream(values()).map(MemberSortKey::getParameter).collect(Collectors.joining(","))));
+    }
+}
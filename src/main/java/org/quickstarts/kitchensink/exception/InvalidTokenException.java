@@ -0,0 +1,18 @@
+package org.quickstarts.kitchensink.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * A bearer token that failed verification. Raised for every bad token a client sends, so it carries no stack trace.
+ */
+public class InvalidTokenException extends AuthenticationException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
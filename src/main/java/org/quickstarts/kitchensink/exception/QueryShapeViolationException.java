@@ -0,0 +1,7 @@
+package org.quickstarts.kitchensink.exception;
+
+public class QueryShapeViolationException extends RuntimeException {
+    public QueryShapeViolationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,61 @@
+package org.quickstarts.kitchensink.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.quickstarts.kitchensink.config.ConcurrencyLimitProperties;
+import org.quickstarts.kitchensink.pojo.ApiError;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Sheds requests beyond the adaptive concurrency limit with an immediate 503 instead of queueing them.
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final ObjectWriter API_ERROR_WRITER = new ObjectMapper().writerFor(ApiError.class);
+
+    private final GradientConcurrencyLimit gradientConcurrencyLimit;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !concurrencyLimitProperties.isEnabled() || request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!gradientConcurrencyLimit.tryAcquire()) {
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // An SSE stream returns here once it goes async; its lifetime is not a request latency
+            gradientConcurrencyLimit.release(System.nanoTime() - start, completed && !request.isAsyncStarted());
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ApiError apiError = new ApiError(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                "Server is at its concurrency limit, retry shortly",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType("application/json");
+        response.getWriter().write(API_ERROR_WRITER.writeValueAsString(apiError));
+    }
+}
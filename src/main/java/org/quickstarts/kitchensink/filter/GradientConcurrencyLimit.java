@@ -0,0 +1,133 @@
+package org.quickstarts.kitchensink.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.config.ConcurrencyLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gradient concurrency limit. Completed requests are grouped into sample windows; each window compares its average
+ * RTT with a long-term average. While the two agree the limit grows by about its square root, and once recent RTT
+ * climbs past rtt-tolerance times the long-term RTT the limit shrinks in proportion, so queueing in MongoDB shows up
+ * as a lower limit instead of a longer Tomcat queue. Admission is a CAS on the in-flight count.
+ */
+@Slf4j
+@Component
+public class GradientConcurrencyLimit implements MeterBinder {
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Sample window and long-term RTT, guarded by this
+    private long windowStart = System.nanoTime();
+    private long windowSamples;
+    private long windowRttSum;
+    private int windowMaxInFlight;
+    private double longRtt;
+    // Fractional limit, so growth of less than one per window is not lost to rounding
+    private double estimatedLimit;
+
+    @Autowired
+    public GradientConcurrencyLimit(ConcurrencyLimitProperties concurrencyLimitProperties) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.limit = concurrencyLimitProperties.getInitialLimit();
+        this.estimatedLimit = limit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // rttNanos is only fed to the algorithm when sample is set; failed and async requests say nothing about latency.
+    public void release(long rttNanos, boolean sample) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (sample) {
+            onSample(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("kitchensink.concurrency.limit", this, GradientConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("kitchensink.concurrency.in-flight", this, GradientConcurrencyLimit::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .register(registry);
+        FunctionCounter.builder("kitchensink.concurrency.rejected", this, GradientConcurrencyLimit::getRejected)
+                .description("Requests shed with 503 at the concurrency limit")
+                .register(registry);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        windowSamples++;
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+        long now = System.nanoTime();
+        if (windowSamples < concurrencyLimitProperties.getWindowSamples()
+                || now - windowStart < concurrencyLimitProperties.getWindow().toNanos()) {
+            return;
+        }
+        update((double) windowRttSum / windowSamples, windowMaxInFlight);
+        windowStart = now;
+        windowSamples = 0;
+        windowRttSum = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private void update(double shortRtt, int maxInFlight) {
+        longRtt = longRtt == 0 ? shortRtt : longRtt + (shortRtt - longRtt) / concurrencyLimitProperties.getLongWindow();
+        if (longRtt / shortRtt > 2) {
+            // Latency dropped well below the long-term average (e.g. after an incident); let the baseline catch up
+            longRtt *= 0.95;
+        }
+        if (maxInFlight < estimatedLimit / 2) {
+            // Not using the current limit, so these RTTs say nothing about a higher one
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, concurrencyLimitProperties.getRttTolerance() * longRtt / shortRtt));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        double smoothed = estimatedLimit * (1 - concurrencyLimitProperties.getSmoothing())
+                + target * concurrencyLimitProperties.getSmoothing();
+        estimatedLimit = Math.max(concurrencyLimitProperties.getMinLimit(),
+                Math.min(concurrencyLimitProperties.getMaxLimit(), smoothed));
+        int current = limit;
+        int next = (int) estimatedLimit;
+        if (next != current) {
+            log.debug("Concurrency limit {} -> {} (rtt {} ms, long-term {} ms)",
+                    current, next, shortRtt / 1e6, longRtt / 1e6);
+            limit = next;
+        }
+    }
+}
@@ -5,11 +5,17 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.quickstarts.kitchensink.cache.RejectedTokenCache;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.cache.VerifiedTokenCache;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
 import org.quickstarts.kitchensink.service.JwtTokenService;
 import org.quickstarts.kitchensink.service.UserService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,23 +27,66 @@ import java.io.IOException;
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
     private final UserService userService;
     private final JwtTokenService jwtTokenService;
+    private final RejectedTokenCache rejectedTokenCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenGenerationCache tokenGenerationCache;
+    private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String username = jwtTokenService.extractUsername(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userService.loadUserByUsername(username);
-                if (jwtTokenService.validateToken(token, userDetails) && !jwtTokenService.isRefreshToken(token)) {
-                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-                }
+            try {
+                authenticate(authHeader.substring(7), request);
+            } catch (InvalidTokenException e) {
+                // Answer bad tokens here rather than letting jjwt exceptions escape the security chain
+                SecurityContextHolder.clearContext();
+                jwtAuthenticationEntryPoint.commence(request, response, e);
+                return;
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(String token, HttpServletRequest request) {
+        VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified == null) {
+            verified = verify(token);
+            verifiedTokenCache.put(token, verified);
+        }
+
+        // Refresh tokens are only good at the token endpoints, which do their own checks
+        if (!verified.refreshToken() && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (!tokenGenerationCache.isCurrent(verified.username(), verified.generation())) {
+                throw new InvalidTokenException("Revoked token");
+            }
+            UserDetails userDetails;
+            try {
+                userDetails = userService.loadUserByUsername(verified.username());
+            } catch (UsernameNotFoundException e) {
+                throw new InvalidTokenException("Unknown user");
+            }
+            if (userDetails != null && verified.username().equals(userDetails.getUsername())) {
+                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+            }
+        }
+    }
+
+    private VerifiedToken verify(String token) {
+        if (!jwtTokenService.isWellFormed(token)) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        if (rejectedTokenCache.contains(token)) {
+            throw new InvalidTokenException("Rejected token");
+        }
+        try {
+            return jwtTokenService.verify(token);
+        } catch (InvalidTokenException e) {
+            rejectedTokenCache.add(token);
+            throw e;
+        }
+    }
 }
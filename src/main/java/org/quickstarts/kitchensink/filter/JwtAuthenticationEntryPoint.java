@@ -1,9 +1,11 @@
 package org.quickstarts.kitchensink.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
 import org.quickstarts.kitchensink.pojo.ApiError;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
@@ -15,10 +17,18 @@ import java.io.IOException;
 @Slf4j
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+    private static final ObjectWriter API_ERROR_WRITER = new ObjectMapper().writerFor(ApiError.class);
+
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response, AuthenticationException authException) throws IOException {
-        log.error("JWT Authentication Failed", authException);
+        if (authException instanceof InvalidTokenException) {
+            // Expected under stale clients and token stuffing; keep it cheap
+            log.debug("Rejected bearer token: {}", authException.getMessage());
+            response.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+        } else {
+            log.error("JWT Authentication Failed", authException);
+        }
         ApiError apiError = new ApiError(
                 HttpStatus.UNAUTHORIZED.value(),
                 "Authentication Failed",
@@ -28,6 +38,6 @@ public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
         response.setContentType("application/json");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.getWriter().write(new ObjectMapper().writeValueAsString(apiError));
+        response.getWriter().write(API_ERROR_WRITER.writeValueAsString(apiError));
     }
 }
@@ -0,0 +1,212 @@
+package org.quickstarts.kitchensink.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.quickstarts.kitchensink.config.RateLimitProperties;
+import org.quickstarts.kitchensink.pojo.ApiError;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client and per-username token buckets for the unauthenticated endpoints that hash passwords. Runs ahead of
+ * Spring Security so a refused request costs no BCrypt work. Client addresses come from
+ * {@link HttpServletRequest#getRemoteAddr()}; behind a proxy, set {@code server.forward-headers-strategy}.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final ObjectMapper BODY_MAPPER = new ObjectMapper();
+    private static final ObjectWriter API_ERROR_WRITER = new ObjectMapper().writerFor(ApiError.class);
+    // Credentials payloads are tiny; larger bodies are not inspected for a username
+    private static final int MAX_INSPECTED_BODY = 4096;
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitProperties.isEnabled() || route(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Route route = route(request);
+        String routeKey = route.getMethod() + " " + route.getPath();
+
+        if (route.getPerIp() != null) {
+            long wait = rateLimiter.tryAcquire(routeKey + " ip " + request.getRemoteAddr(), route.getPerIp());
+            if (wait > 0) {
+                reject(request, response, wait);
+                return;
+            }
+        }
+
+        if (route.getUsernameField() != null && route.getPerUsername() != null) {
+            CachedBodyRequest cachedBodyRequest = new CachedBodyRequest(request);
+            String username = cachedBodyRequest.field(route.getUsernameField());
+            if (username != null) {
+                long wait = rateLimiter.tryAcquire(routeKey + " user " + username.toLowerCase(Locale.ROOT),
+                        route.getPerUsername());
+                if (wait > 0) {
+                    reject(request, response, wait);
+                    return;
+                }
+            }
+            request = cachedBodyRequest;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitProperties.Route route(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Route route : rateLimitProperties.getRoutes()) {
+            if (route.getPath().equals(path) && route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        ApiError apiError = new ApiError(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                "Rate limit exceeded, retry later",
+                request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType("application/json");
+        response.getWriter().write(API_ERROR_WRITER.writeValueAsString(apiError));
+    }
+
+    // Reads at most MAX_INSPECTED_BODY + 1 bytes so the username can be taken from small bodies; the controller still
+    // sees the whole body, the rest of a larger one streamed from the original request.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] prefix;
+        // Null when the prefix is the whole body
+        private final ServletInputStream rest;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            ServletInputStream inputStream = request.getInputStream();
+            this.prefix = inputStream.readNBytes(MAX_INSPECTED_BODY + 1);
+            this.rest = prefix.length > MAX_INSPECTED_BODY ? inputStream : null;
+        }
+
+        String field(String name) {
+            if (prefix.length == 0 || rest != null) {
+                return null;
+            }
+            try {
+                JsonNode value = BODY_MAPPER.readTree(prefix).get(name);
+                return value != null && value.isTextual() ? value.asText() : null;
+            } catch (IOException e) {
+                return null; // let validation answer malformed bodies
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new PrefixedInputStream(new ByteArrayInputStream(prefix), rest);
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding())));
+        }
+    }
+
+    private static class PrefixedInputStream extends ServletInputStream {
+        private final ByteArrayInputStream prefix;
+        private final ServletInputStream rest;
+
+        PrefixedInputStream(ByteArrayInputStream prefix, ServletInputStream rest) {
+            this.prefix = prefix;
+            this.rest = rest;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return prefix.available() == 0 && (rest == null || rest.isFinished());
+        }
+
+        @Override
+        public boolean isReady() {
+            return prefix.available() > 0 || rest == null || rest.isReady();
+        }
+
+        // The buffered bytes are all there, so they are announced at once; the rest is announced by the container.
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            if (rest == null) {
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+                return;
+            }
+            rest.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    readListener.onDataAvailable();
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    if (prefix.available() > 0) {
+                        readListener.onDataAvailable();
+                    }
+                    readListener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    readListener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = prefix.read();
+            return b != -1 || rest == null ? b : rest.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (prefix.available() > 0) {
+                return prefix.read(b, off, len);
+            }
+            return rest == null ? -1 : rest.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.quickstarts.kitchensink.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.quickstarts.kitchensink.config.RateLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets kept as one AtomicLong each, using the generic cell rate algorithm: the value is the time at which the
+ * bucket would be full again, and taking a token pushes it one refill interval further. A request that would push it
+ * more than capacity intervals past now is refused. Buckets whose time has passed are full, so they can be dropped
+ * without changing behavior; that is how the map stays bounded.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    @Autowired
+    public RateLimiter(RateLimitProperties rateLimitProperties) {
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanos until one is available.
+    public long tryAcquire(String key, RateLimitProperties.Budget budget) {
+        return tryAcquire(key, budget, System.nanoTime());
+    }
+
+    long tryAcquire(String key, RateLimitProperties.Budget budget, long now) {
+        long interval = TimeUnit.MINUTES.toNanos(1) / budget.getPerMinute();
+        long tolerance = interval * budget.getCapacity();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            evictIfFull(now);
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + interval;
+            if (next - now > tolerance) {
+                rejected.increment();
+                return next - now - tolerance;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("kitchensink.rate-limit.buckets", this, RateLimiter::size)
+                .description("Client and username buckets being tracked")
+                .register(registry);
+        FunctionCounter.builder("kitchensink.rate-limit.rejected", this, RateLimiter::getRejected)
+                .description("Requests refused with 429")
+                .register(registry);
+    }
+
+    private void evictIfFull(long now) {
+        if (buckets.size() < rateLimitProperties.getMaxEntries()) {
+            return;
+        }
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+        if (buckets.size() >= rateLimitProperties.getMaxEntries()) {
+            // Every bucket is busy; give up one rather than grow
+            Iterator<AtomicLong> iterator = buckets.values().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package org.quickstarts.kitchensink.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
 import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.springframework.data.annotation.AccessType;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.io.Serializable;
+import java.util.Locale;
 
 @Getter
 @Setter
@@ -24,9 +28,17 @@ public class Member implements Serializable {
     @Field("name")
     private String name;
 
+    // Read through setEmail, so members stored before email_domain existed get it too
     @Field("email")
+    @AccessType(AccessType.Type.PROPERTY)
     private String email;
 
+    // Lower-cased part of the email after its @, kept in step by setEmail; bulk operations select members by it
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Field("email_domain")
+    private String emailDomain;
+
     @Field("phone_number")
     private String phoneNumber;
 
@@ -37,16 +49,47 @@ public class Member implements Serializable {
     @Field("is_active")
     private MemberStatus status;
 
+    @JsonIgnore
+    @Field("change_seq")
+    private long changeSeq;
+
+    // Kind of the change stamped with changeSeq; relayed to listeners as a MemberChangeEvent
+    @JsonIgnore
+    @Field("change_type")
+    private MemberChangeType changeType;
+
     public Member(String name, String email, String phoneNumber) {
         this.name = name;
-        this.email = email;
+        setEmail(email);
         this.phoneNumber = phoneNumber;
         this.isDeleted = false;
         this.status = MemberStatus.ACTIVE;
     }
 
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailDomain = emailDomain(email);
+    }
+
+    public static String emailDomain(String email) {
+        return email == null ? null : email.substring(email.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
     @JsonIgnore
     public boolean isActive() {
         return status != null && status == MemberStatus.ACTIVE;
     }
+
+    public Member copy() {
+        Member copy = new Member();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setEmail(email);
+        copy.setPhoneNumber(phoneNumber);
+        copy.setDeleted(isDeleted);
+        copy.setStatus(status);
+        copy.setChangeSeq(changeSeq);
+        copy.setChangeType(changeType);
+        return copy;
+    }
 }
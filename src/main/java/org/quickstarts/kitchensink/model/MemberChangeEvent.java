@@ -0,0 +1,57 @@
+package org.quickstarts.kitchensink.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+
+import java.util.Date;
+
+// A member's state as of one change, published by MemberOutboxRelay. Identified by its change sequence.
+@Getter
+@Setter
+@NoArgsConstructor
+public class MemberChangeEvent {
+    private String id;
+
+    private MemberChangeType type;
+
+    private String memberId;
+
+    private String name;
+
+    private String email;
+
+    private String phoneNumber;
+
+    private MemberStatus status;
+
+    private boolean deleted;
+
+    private long changeSeq;
+
+    private Date createdAt;
+
+    // Members stamped before change types were kept are told apart by their deleted flag.
+    public static MemberChangeEvent of(Member member) {
+        MemberChangeType type = member.getChangeType() != null ? member.getChangeType()
+                : member.isDeleted() ? MemberChangeType.DELETED : MemberChangeType.UPDATED;
+        return of(type, member);
+    }
+
+    public static MemberChangeEvent of(MemberChangeType type, Member member) {
+        MemberChangeEvent event = new MemberChangeEvent();
+        event.id = String.valueOf(member.getChangeSeq());
+        event.type = type;
+        event.memberId = member.getId();
+        event.name = member.getName();
+        event.email = member.getEmail();
+        event.phoneNumber = member.getPhoneNumber();
+        event.status = member.getStatus();
+        event.deleted = member.isDeleted();
+        event.changeSeq = member.getChangeSeq();
+        event.createdAt = new Date();
+        return event;
+    }
+}
@@ -0,0 +1,41 @@
+package org.quickstarts.kitchensink.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.Date;
+
+// A refresh token that has been exchanged (or revoked), keyed by its jti. MongoDB drops it once the token expires.
+@Getter
+@Setter
+@NoArgsConstructor
+@Document("refresh_token")
+public class RefreshToken {
+    @Id
+    private String id;
+
+    @Field("username")
+    private String username;
+
+    // jti of the token issued in exchange; null when revoked without an exchange.
+    @Field("replaced_by")
+    private String replacedBy;
+
+    @Field("used_at")
+    private Date usedAt;
+
+    @Field("expires_at")
+    private Date expiresAt;
+
+    public RefreshToken(String id, String username, String replacedBy, Date expiresAt) {
+        this.id = id;
+        this.username = username;
+        this.replacedBy = replacedBy;
+        this.usedAt = new Date();
+        this.expiresAt = expiresAt;
+    }
+}
@@ -28,6 +28,9 @@ public class User {
     private String password;
 
     private boolean enabled;
+    // Bumped to revoke every token issued before; tokens carry the generation they were issued at.
+    @Field("token_generation")
+    private long tokenGeneration;
     private Date createdAt;
     private Date updatedAt;
 
@@ -0,0 +1,18 @@
+package org.quickstarts.kitchensink.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.quickstarts.kitchensink.model.Member;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberBatchDTO {
+    private List<Member> members;
+    private List<String> missingIds;
+}
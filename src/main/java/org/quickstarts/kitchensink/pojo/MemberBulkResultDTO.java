@@ -0,0 +1,15 @@
+package org.quickstarts.kitchensink.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberBulkResultDTO {
+    private long matched;
+    private long modified;
+}
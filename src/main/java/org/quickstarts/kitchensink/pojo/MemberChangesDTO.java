@@ -0,0 +1,20 @@
+package org.quickstarts.kitchensink.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.quickstarts.kitchensink.model.Member;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberChangesDTO {
+    private List<Member> members;
+    private List<String> deletedIds;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,31 @@
+package org.quickstarts.kitchensink.pojo;
+
+import jakarta.validation.GroupSequence;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.ID_PATTERN;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MAX_IDS_PER_REQUEST;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@GroupSequence({MemberIdsDTO.class, MemberIdsDTO.Ids.class})
+public class MemberIdsDTO {
+    @NotEmpty(message = "Ids are mandatory")
+    @Size(max = MAX_IDS_PER_REQUEST, message = "At most " + MAX_IDS_PER_REQUEST + " ids per request")
+    private List<@NotNull(message = "Invalid Id format", groups = Ids.class) @Pattern(regexp = ID_PATTERN, message = "Invalid Id format", groups = Ids.class) String> ids;
+
+    // Ids are only checked once the list is known to be small enough
+    interface Ids {
+    }
+}
@@ -0,0 +1,34 @@
+package org.quickstarts.kitchensink.pojo;
+
+import jakarta.validation.GroupSequence;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.EMAIL_DOMAIN_REGEX;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.ID_PATTERN;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MAX_IDS_PER_REQUEST;
+
+// Members a bulk operation applies to: either explicit ids or every member with an email at emailDomain.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@GroupSequence({MemberSelectionDTO.class, MemberSelectionDTO.Ids.class})
+public class MemberSelectionDTO {
+    @Size(max = MAX_IDS_PER_REQUEST, message = "At most " + MAX_IDS_PER_REQUEST + " ids per request")
+    private List<@NotNull(message = "Invalid Id format", groups = Ids.class) @Pattern(regexp = ID_PATTERN, message = "Invalid Id format", groups = Ids.class) String> ids;
+
+    @Pattern(regexp = EMAIL_DOMAIN_REGEX, message = "Invalid email domain")
+    private String emailDomain;
+
+    // Ids are only checked once the list is known to be small enough
+    interface Ids {
+    }
+}
@@ -0,0 +1,27 @@
+package org.quickstarts.kitchensink.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberStatsDTO {
+    // Members not deleted, by status
+    private Map<MemberStatus, Long> byStatus;
+    private long deleted;
+    // Members created per UTC day, deleted ones included, oldest first
+    private Map<LocalDate, Long> registrationsPerDay;
+    // Last reconciliation against the database; null until the first one
+    private Instant reconciledAt;
+    // Last change to any count
+    private Instant updatedAt;
+}
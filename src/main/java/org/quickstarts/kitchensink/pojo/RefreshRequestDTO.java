@@ -0,0 +1,19 @@
+package org.quickstarts.kitchensink.pojo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshRequestDTO {
+
+    @NotBlank(message = "Refresh token is mandatory")
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+}
@@ -0,0 +1,6 @@
+package org.quickstarts.kitchensink.pojo;
+
+// Claims of a token whose signature and expiry have been checked. Times are epoch seconds; tokenId is the jti, if any.
+public record VerifiedToken(String username, boolean refreshToken, long issuedAt, long expiresAt, String tokenId,
+                            long generation) {
+}
@@ -0,0 +1,269 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.bson.types.ObjectId;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.IN_MEMORY_PROFILE;
+
+/**
+ * {@link MemberRepository} backed by a hash index on id and email and sorted indexes on name, email, email domain
+ * and change sequence.
+ * Emails are unique, as registration already guarantees.
+ */
+@Repository
+@Profile(IN_MEMORY_PROFILE)
+public class InMemoryMemberRepository extends InMemoryRepository<Member, String> implements MemberRepository {
+    // Same order as MemberSortKey.NAME and EMAIL, the collated orders the list is served in
+    private static final Comparator<IndexKey<String>> COLLATED = Comparator
+            .comparing((IndexKey<String> key) -> key.value(), Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(IndexKey::id);
+    private static final Comparator<IndexKey<String>> BY_EMAIL_DOMAIN = Comparator
+            .comparing((IndexKey<String> key) -> key.value())
+            .thenComparing(IndexKey::id);
+    private static final Comparator<IndexKey<Long>> BY_CHANGE_SEQ = Comparator
+            .comparing((IndexKey<Long> key) -> key.value())
+            .thenComparing(IndexKey::id);
+
+    private final Map<String, String> emailIndex = new ConcurrentHashMap<>();
+    private final NavigableSet<IndexKey<String>> nameIndex = new ConcurrentSkipListSet<>(COLLATED);
+    private final NavigableSet<IndexKey<String>> sortedEmailIndex = new ConcurrentSkipListSet<>(COLLATED);
+    private final NavigableSet<IndexKey<Long>> changeSeqIndex = new ConcurrentSkipListSet<>(BY_CHANGE_SEQ);
+    private final NavigableSet<IndexKey<String>> emailDomainIndex = new ConcurrentSkipListSet<>(BY_EMAIL_DOMAIN);
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        String id = email == null ? null : emailIndex.get(email);
+        return Optional.ofNullable(id == null ? null : load(id));
+    }
+
+    @Override
+    public List<Member> findAllOrderedBy(Sort sort) {
+        return findAll(sort);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return email != null && emailIndex.containsKey(email);
+    }
+
+    @Override
+    public List<Member> findByChangeSeqGreaterThan(long changeSeq, Pageable pageable) {
+        Iterator<IndexKey<Long>> keys = changeSeqIndex.tailSet(new IndexKey<>(changeSeq + 1, ""), true).iterator();
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<Member> members = new ArrayList<>();
+        while (keys.hasNext() && members.size() < limit) {
+            Member member = load(keys.next().id());
+            if (member == null) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                members.add(member);
+            }
+        }
+        return members;
+    }
+
+    @Override
+    public Optional<Member> findFirstByOrderByChangeSeqDesc() {
+        for (IndexKey<Long> key : changeSeqIndex.descendingSet()) {
+            Member member = load(key.id());
+            if (member != null) {
+                return Optional.of(member);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Member> findByEmailDomain(String emailDomain, String afterId, int limit) {
+        List<Member> members = new ArrayList<>();
+        for (IndexKey<String> key : emailDomainIndex.tailSet(new IndexKey<>(emailDomain, afterId == null ? "" : afterId), afterId == null)) {
+            if (members.size() >= limit || !key.value().equals(emailDomain)) {
+                break;
+            }
+            Member member = load(key.id());
+            if (member != null) {
+                members.add(member);
+            }
+        }
+        return members;
+    }
+
+    // Nothing crosses a wire here, so projected reads return whole members. Name and email orders walk their sorted
+    // index; the other orders sort a copy.
+    @Override
+    public List<Member> findAllSorted(MemberSortKey sortKey, Sort.Direction direction, Collection<String> fields) {
+        NavigableSet<IndexKey<String>> index = switch (sortKey) {
+            case NAME -> nameIndex;
+            case EMAIL -> sortedEmailIndex;
+            default -> null;
+        };
+        if (index == null) {
+            List<Member> members = new ArrayList<>(findAll());
+            members.sort(sortKey.comparator(direction));
+            return members;
+        }
+        List<Member> members = new ArrayList<>(entities.size());
+        for (IndexKey<String> key : direction.isAscending() ? index : index.descendingSet()) {
+            Member member = load(key.id());
+            if (member != null) {
+                members.add(member);
+            }
+        }
+        return members;
+    }
+
+    @Override
+    public Optional<Member> findById(String id, Collection<String> fields) {
+        return findById(id);
+    }
+
+    // Whole-word matches like MongoDB's text index, ranked by the number of matching words.
+    @Override
+    public List<Member> searchText(String query, int limit) {
+        List<String> words = List.of(query.toLowerCase(Locale.ROOT).trim().split("\\s+"));
+        Map<Member, Long> hits = new HashMap<>();
+        for (Member member : entities.values()) {
+            if (member.isDeleted() || !member.isActive()) {
+                continue;
+            }
+            List<String> memberWords = textWords(member);
+            long count = words.stream().filter(memberWords::contains).count();
+            if (count > 0) {
+                hits.put(member, count);
+            }
+        }
+        return hits.entrySet().stream()
+                .sorted(Map.Entry.<Member, Long>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().getId()))
+                .limit(limit)
+                .map(entry -> copy(entry.getKey()))
+                .toList();
+    }
+
+    private static List<String> textWords(Member member) {
+        String text = String.join(" ", Objects.toString(member.getName(), ""), Objects.toString(member.getEmail(), ""),
+                Objects.toString(member.getPhoneNumber(), ""));
+        return List.of(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"));
+    }
+
+    @Override
+    public MemberCounts countMembers(LocalDate registrationsSince, long changedAfter) {
+        Map<StateCount, Long> counts = new HashMap<>();
+        Map<LocalDate, Long> registrations = new TreeMap<>();
+        Map<String, Long> changeSeqs = new HashMap<>();
+        for (Member member : entities.values()) {
+            counts.merge(new StateCount(member.getStatus(), member.isDeleted(), 0), 1L, Long::sum);
+            if (member.getChangeSeq() > changedAfter) {
+                changeSeqs.put(member.getId(), member.getChangeSeq());
+            }
+            if (!ObjectId.isValid(member.getId())) {
+                continue;
+            }
+            LocalDate day = LocalDate.ofInstant(new ObjectId(member.getId()).getDate().toInstant(), ZoneOffset.UTC);
+            if (!day.isBefore(registrationsSince)) {
+                registrations.merge(day, 1L, Long::sum);
+            }
+        }
+        List<StateCount> states = counts.entrySet().stream()
+                .map(entry -> new StateCount(entry.getKey().status(), entry.getKey().deleted(), entry.getValue()))
+                .toList();
+        return new MemberCounts(states, registrations, changeSeqs);
+    }
+
+    @Override
+    public synchronized List<String> bulkUpdateState(List<Member> members) {
+        List<String> modified = new ArrayList<>();
+        for (Member member : members) {
+            Member existing = entities.get(member.getId());
+            if (existing == null || existing.isDeleted()) {
+                continue;
+            }
+            Member updated = existing.copy();
+            updated.setStatus(member.getStatus());
+            updated.setDeleted(member.isDeleted());
+            updated.setChangeSeq(member.getChangeSeq());
+            updated.setChangeType(member.getChangeType());
+            store(updated, false);
+            modified.add(member.getId());
+        }
+        return modified;
+    }
+
+    @Override
+    protected void checkConstraints(Member member, Member existing) {
+        String owner = member.getEmail() == null ? null : emailIndex.get(member.getEmail());
+        if (owner != null && !owner.equals(member.getId())) {
+            throw new DuplicateKeyException("Duplicate email: " + member.getEmail());
+        }
+    }
+
+    @Override
+    protected void index(Member member) {
+        if (member.getEmail() != null) {
+            emailIndex.put(member.getEmail(), member.getId());
+            emailDomainIndex.add(new IndexKey<>(member.getEmailDomain(), member.getId()));
+        }
+        nameIndex.add(new IndexKey<>(member.getName(), member.getId()));
+        sortedEmailIndex.add(new IndexKey<>(member.getEmail(), member.getId()));
+        changeSeqIndex.add(new IndexKey<>(member.getChangeSeq(), member.getId()));
+    }
+
+    @Override
+    protected void unindex(Member member) {
+        if (member.getEmail() != null) {
+            emailIndex.remove(member.getEmail(), member.getId());
+            emailDomainIndex.remove(new IndexKey<>(member.getEmailDomain(), member.getId()));
+        }
+        nameIndex.remove(new IndexKey<>(member.getName(), member.getId()));
+        sortedEmailIndex.remove(new IndexKey<>(member.getEmail(), member.getId()));
+        changeSeqIndex.remove(new IndexKey<>(member.getChangeSeq(), member.getId()));
+    }
+
+    @Override
+    protected String getId(Member member) {
+        return member.getId();
+    }
+
+    @Override
+    protected void setId(Member member, String id) {
+        member.setId(id);
+    }
+
+    @Override
+    protected Member copy(Member member) {
+        return member.copy();
+    }
+
+    private record IndexKey<V>(V value, String id) {
+        IndexKey {
+            Objects.requireNonNull(id);
+        }
+    }
+}
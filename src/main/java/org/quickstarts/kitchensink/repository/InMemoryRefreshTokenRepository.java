@@ -0,0 +1,44 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.quickstarts.kitchensink.model.RefreshToken;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.IN_MEMORY_PROFILE;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.LOG_STORE_PROFILE;
+
+@Repository
+@Profile({IN_MEMORY_PROFILE, LOG_STORE_PROFILE})
+public class InMemoryRefreshTokenRepository extends InMemoryRepository<RefreshToken, String>
+        implements RefreshTokenRepository {
+
+    // Stands in for the TTL index the MongoDB collection has.
+    @Override
+    public long deleteByExpiresAtBefore(Date date) {
+        List<String> expired = entities.values().stream()
+                .filter(token -> token.getExpiresAt().before(date))
+                .map(RefreshToken::getId)
+                .toList();
+        expired.forEach(this::remove);
+        return expired.size();
+    }
+
+    @Override
+    protected String getId(RefreshToken token) {
+        return token.getId();
+    }
+
+    @Override
+    protected void setId(RefreshToken token, String id) {
+        token.setId(id);
+    }
+
+    // Rotation records are never modified after they are written.
+    @Override
+    protected RefreshToken copy(RefreshToken token) {
+        return token;
+    }
+}
@@ -0,0 +1,303 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent map-backed {@link MongoRepository} for running without MongoDB. Reads are lock-free; writes are
+ * serialized so subclasses can keep secondary indexes consistent in {@link #index} and {@link #unindex}.
+ * Entities are copied on the way in and out, so callers never mutate stored state. Subclasses that
+ * {@link #attach} a {@link LogStructuredStore} are durable.
+ */
+public abstract class InMemoryRepository<T, ID> implements MongoRepository<T, ID> {
+    protected final Map<String, T> entities = new ConcurrentHashMap<>();
+
+    private LogStructuredStore log;
+
+    protected abstract String getId(T entity);
+
+    protected abstract void setId(T entity, String id);
+
+    protected abstract T copy(T entity);
+
+    protected void index(T entity) {
+    }
+
+    protected void unindex(T entity) {
+    }
+
+    // Called under the write lock before entity replaces existing (null for a new id).
+    protected void checkConstraints(T entity, T existing) {
+    }
+
+    protected String key(Object id) {
+        return String.valueOf(id);
+    }
+
+    protected byte[] encode(T entity) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is not durable");
+    }
+
+    protected T decode(byte[] value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is not durable");
+    }
+
+    // Makes the repository durable: replays the log into memory, then writes through it ahead of every change.
+    protected synchronized void attach(LogStructuredStore log) {
+        log.open((key, value) -> apply(decode(value)), this::applyRemoval);
+        this.log = log;
+    }
+
+    // Rewrites the log once at least garbageRatio of its records are overwritten or deleted.
+    public synchronized boolean compact(double garbageRatio) {
+        if (log == null || log.records() == 0 || log.records() - entities.size() < garbageRatio * log.records()) {
+            return false;
+        }
+        Map<String, byte[]> live = new LinkedHashMap<>();
+        entities.forEach((key, entity) -> live.put(key, encode(entity)));
+        log.rewrite(live);
+        return true;
+    }
+
+    protected synchronized void detach() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    protected T load(String key) {
+        T entity = entities.get(key);
+        return entity == null ? null : copy(entity);
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        if (getId(entity) == null) {
+            setId(entity, new ObjectId().toHexString());
+        }
+        store(entity, false);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        if (getId(entity) == null) {
+            setId(entity, new ObjectId().toHexString());
+        }
+        store(entity, true);
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    protected synchronized void store(T entity, boolean insert) {
+        String key = getId(entity);
+        T existing = entities.get(key);
+        if (insert && existing != null) {
+            throw new DuplicateKeyException("Duplicate id: " + key);
+        }
+        checkConstraints(entity, existing);
+        T stored = copy(entity);
+        persist(stored);
+        apply(stored);
+    }
+
+    protected synchronized void remove(String key) {
+        if (entities.containsKey(key)) {
+            persistRemoval(key);
+            applyRemoval(key);
+        }
+    }
+
+    private void persist(T entity) {
+        if (log != null) {
+            log.put(getId(entity), encode(entity));
+        }
+    }
+
+    private void persistRemoval(String key) {
+        if (log != null) {
+            log.delete(key);
+        }
+    }
+
+    protected void apply(T entity) {
+        T existing = entities.put(getId(entity), entity);
+        if (existing != null) {
+            unindex(existing);
+        }
+        index(entity);
+    }
+
+    protected void applyRemoval(String key) {
+        T existing = entities.remove(key);
+        if (existing != null) {
+            unindex(existing);
+        }
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return Optional.ofNullable(load(key(id)));
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        return entities.containsKey(key(id));
+    }
+
+    @Override
+    public List<T> findAll() {
+        return entities.values().stream().map(this::copy).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        List<T> found = new ArrayList<>();
+        for (ID id : ids) {
+            T entity = load(key(id));
+            if (entity != null) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        if (sort.isUnsorted()) {
+            return findAll();
+        }
+        List<T> sorted = new ArrayList<>(findAll());
+        sorted.sort(comparator(sort));
+        return sorted;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> sorted = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    @Override
+    public long count() {
+        return entities.size();
+    }
+
+    @Override
+    public void deleteById(ID id) {
+        remove(key(id));
+    }
+
+    @Override
+    public void delete(T entity) {
+        remove(getId(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends ID> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        if (log != null) {
+            log.clear();
+        }
+        entities.values().forEach(this::unindex);
+        entities.clear();
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unsupportedExample();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupportedExample();
+    }
+
+    // Generic property comparator with MongoDB's ordering of nulls (lowest); subclasses serve indexed sorts directly.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    entity -> (Comparable) PropertyAccessorFactory.forDirectFieldAccess(entity).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    private static UnsupportedOperationException unsupportedExample() {
+        return new UnsupportedOperationException("Query by example is not supported by the in-memory store");
+    }
+}
@@ -0,0 +1,93 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.quickstarts.kitchensink.model.User;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.IN_MEMORY_PROFILE;
+
+@Repository
+@Profile(IN_MEMORY_PROFILE)
+public class InMemoryUserRepository extends InMemoryRepository<User, Integer> implements UserRepository {
+    private final Map<String, String> emailIndex = new ConcurrentHashMap<>();
+
+    @Override
+    public User findByEmail(String email) {
+        String id = email == null ? null : emailIndex.get(email);
+        return id == null ? null : load(id);
+    }
+
+    @Override
+    public List<User> findByUpdatedAtAfter(Date updatedAt) {
+        return entities.values().stream()
+                .filter(user -> user.getUpdatedAt() != null && user.getUpdatedAt().after(updatedAt))
+                .map(this::copy)
+                .toList();
+    }
+
+    // Synchronized with store, so the compare and the bump are one write like the MongoDB findAndModify
+    @Override
+    public synchronized OptionalLong updatePassword(String email, String expectedPassword, String password,
+                                                    Date updatedAt) {
+        User user = findByEmail(email);
+        if (user == null || !Objects.equals(user.getPassword(), expectedPassword)) {
+            return OptionalLong.empty();
+        }
+        user.setPassword(password);
+        user.setUpdatedAt(updatedAt);
+        user.setTokenGeneration(user.getTokenGeneration() + 1);
+        store(user, false);
+        return OptionalLong.of(user.getTokenGeneration());
+    }
+
+    @Override
+    protected void checkConstraints(User user, User existing) {
+        String owner = user.getEmail() == null ? null : emailIndex.get(user.getEmail());
+        if (owner != null && !owner.equals(user.getId())) {
+            throw new DuplicateKeyException("Duplicate email: " + user.getEmail());
+        }
+    }
+
+    @Override
+    protected void index(User user) {
+        if (user.getEmail() != null) {
+            emailIndex.put(user.getEmail(), user.getId());
+        }
+    }
+
+    @Override
+    protected void unindex(User user) {
+        if (user.getEmail() != null) {
+            emailIndex.remove(user.getEmail(), user.getId());
+        }
+    }
+
+    @Override
+    protected String getId(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void setId(User user, String id) {
+        user.setId(id);
+    }
+
+    @Override
+    protected User copy(User user) {
+        User copy = new User(user.getEmail(), user.getPassword());
+        copy.setId(user.getId());
+        copy.setEnabled(user.isEnabled());
+        copy.setTokenGeneration(user.getTokenGeneration());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        return copy;
+    }
+}
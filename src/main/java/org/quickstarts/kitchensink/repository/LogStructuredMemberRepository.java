@@ -0,0 +1,89 @@
+package org.quickstarts.kitchensink.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.quickstarts.kitchensink.config.LogStoreProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.LOG_STORE_PROFILE;
+
+/**
+ * Durable {@link InMemoryMemberRepository}: every write is appended to {@code members.log} before it becomes
+ * visible, and the log is replayed into the in-memory indexes on startup.
+ */
+@Repository
+@Profile(LOG_STORE_PROFILE)
+public class LogStructuredMemberRepository extends InMemoryMemberRepository {
+
+    @Autowired
+    public LogStructuredMemberRepository(LogStoreProperties logStoreProperties) {
+        attach(new LogStructuredStore(logStoreProperties.getDirectory().resolve("members.log"),
+                (int) logStoreProperties.getInitialSize().toBytes(), logStoreProperties.isSyncWrites()));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        detach();
+    }
+
+    @Override
+    protected byte[] encode(Member member) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeNullable(out, member.getId());
+            writeNullable(out, member.getName());
+            writeNullable(out, member.getEmail());
+            writeNullable(out, member.getPhoneNumber());
+            out.writeBoolean(member.isDeleted());
+            writeNullable(out, member.getStatus() == null ? null : member.getStatus().name());
+            out.writeLong(member.getChangeSeq());
+            writeNullable(out, member.getChangeType() == null ? null : member.getChangeType().name());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    protected Member decode(byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            Member member = new Member();
+            member.setId(readNullable(in));
+            member.setName(readNullable(in));
+            member.setEmail(readNullable(in));
+            member.setPhoneNumber(readNullable(in));
+            member.setDeleted(in.readBoolean());
+            String status = readNullable(in);
+            member.setStatus(status == null ? null : MemberStatus.valueOf(status));
+            member.setChangeSeq(in.readLong());
+            // Records written before change types were kept end here
+            String changeType = in.available() > 0 ? readNullable(in) : null;
+            member.setChangeType(changeType == null ? null : MemberChangeType.valueOf(changeType));
+            return member;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,194 @@
+package org.quickstarts.kitchensink.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of keyed records. Each record is
+ * {@code [int length][int crc32c][byte op][short keyLength][key][value]}; a zero length marks the end of the log.
+ * Opening a log replays it and cuts off a torn tail left by a crash. Callers serialize writes.
+ */
+@Slf4j
+public class LogStructuredStore implements Closeable {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_SIZE = 8;
+
+    private final Path file;
+    private final int initialSize;
+    private final boolean syncWrites;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private long records;
+
+    public LogStructuredStore(Path file, int initialSize, boolean syncWrites) {
+        this.file = file;
+        this.initialSize = initialSize;
+        this.syncWrites = syncWrites;
+    }
+
+    public void open(BiConsumer<String, byte[]> onPut, Consumer<String> onDelete) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            map((int) Math.max(initialSize, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        replay(onPut, onDelete);
+    }
+
+    public void put(String key, byte[] value) {
+        append(PUT, key, value);
+    }
+
+    public void delete(String key) {
+        append(DELETE, key, new byte[0]);
+    }
+
+    public void clear() {
+        rewrite(Map.of());
+    }
+
+    // Number of records in the log, live or not; compare with the live count to decide on compaction.
+    public long records() {
+        return records;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    /**
+     * Replaces the log with one PUT record per live entry. The new log is written and forced to a side file first
+     * and then moved over the old one, so a crash mid-compaction leaves either the old or the new log.
+     */
+    public void rewrite(Map<String, byte[]> live) {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try {
+            Files.deleteIfExists(compacted);
+            LogStructuredStore target = new LogStructuredStore(compacted, initialSize, false);
+            target.open((key, value) -> { }, key -> { });
+            live.forEach(target::put);
+            target.close();
+
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            map((int) channel.size());
+            position = target.position;
+            records = target.records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    private void append(byte op, String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 2 + keyBytes.length + value.length;
+        ensureCapacity(HEADER_SIZE + length);
+
+        int start = position;
+        buffer.position(start + HEADER_SIZE);
+        buffer.put(op).putShort((short) keyBytes.length).put(keyBytes).put(value);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + HEADER_SIZE, length));
+        buffer.putInt(start + 4, (int) crc.getValue());
+        buffer.putInt(start, length); // written last so a torn record never looks complete
+        position = start + HEADER_SIZE + length;
+        records++;
+        if (syncWrites) {
+            buffer.force(start, HEADER_SIZE + length);
+        }
+    }
+
+    private void replay(BiConsumer<String, byte[]> onPut, Consumer<String> onDelete) {
+        position = 0;
+        records = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 3 || position + HEADER_SIZE + length > buffer.capacity() || !checksumMatches(length)) {
+                log.warn("Truncating torn record at offset {} of {}", position, file);
+                zeroFrom(position);
+                break;
+            }
+
+            int offset = position + HEADER_SIZE;
+            byte op = buffer.get(offset);
+            byte[] keyBytes = new byte[buffer.getShort(offset + 1)];
+            buffer.get(offset + 3, keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            if (op == PUT) {
+                byte[] value = new byte[length - 3 - keyBytes.length];
+                buffer.get(offset + 3 + keyBytes.length, value);
+                onPut.accept(key, value);
+            } else {
+                onDelete.accept(key);
+            }
+            position += HEADER_SIZE + length;
+            records++;
+        }
+    }
+
+    private void zeroFrom(int offset) {
+        byte[] zeros = new byte[64 * 1024];
+        for (int i = offset; i < buffer.capacity(); i += zeros.length) {
+            buffer.put(i, zeros, 0, Math.min(zeros.length, buffer.capacity() - i));
+        }
+    }
+
+    private boolean checksumMatches(int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + HEADER_SIZE, length));
+        return buffer.getInt(position + 4) == (int) crc.getValue();
+    }
+
+    private void ensureCapacity(int required) {
+        long capacity = buffer.capacity();
+        if (position + (long) required <= capacity) {
+            return;
+        }
+        while (position + (long) required > capacity) {
+            capacity *= 2;
+        }
+        if (position + (long) required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Log " + file + " exceeds 2 GB; compact it or raise the threshold");
+        }
+        try {
+            map((int) Math.min(capacity, Integer.MAX_VALUE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+}
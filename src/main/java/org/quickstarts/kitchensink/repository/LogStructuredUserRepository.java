@@ -0,0 +1,73 @@
+package org.quickstarts.kitchensink.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.quickstarts.kitchensink.config.LogStoreProperties;
+import org.quickstarts.kitchensink.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+
+import static org.quickstarts.kitchensink.repository.LogStructuredMemberRepository.readNullable;
+import static org.quickstarts.kitchensink.repository.LogStructuredMemberRepository.writeNullable;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.LOG_STORE_PROFILE;
+
+@Repository
+@Profile(LOG_STORE_PROFILE)
+public class LogStructuredUserRepository extends InMemoryUserRepository {
+
+    @Autowired
+    public LogStructuredUserRepository(LogStoreProperties logStoreProperties) {
+        attach(new LogStructuredStore(logStoreProperties.getDirectory().resolve("users.log"),
+                (int) logStoreProperties.getInitialSize().toBytes(), logStoreProperties.isSyncWrites()));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        detach();
+    }
+
+    @Override
+    protected byte[] encode(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeNullable(out, user.getId());
+            writeNullable(out, user.getEmail());
+            writeNullable(out, user.getPassword());
+            out.writeBoolean(user.isEnabled());
+            out.writeLong(user.getCreatedAt() == null ? -1 : user.getCreatedAt().getTime());
+            out.writeLong(user.getUpdatedAt() == null ? -1 : user.getUpdatedAt().getTime());
+            out.writeLong(user.getTokenGeneration());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    protected User decode(byte[] value) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            User user = new User();
+            user.setId(readNullable(in));
+            user.setEmail(readNullable(in));
+            user.setPassword(readNullable(in));
+            user.setEnabled(in.readBoolean());
+            long createdAt = in.readLong();
+            user.setCreatedAt(createdAt < 0 ? null : new Date(createdAt));
+            long updatedAt = in.readLong();
+            user.setUpdatedAt(updatedAt < 0 ? null : new Date(updatedAt));
+            // Records written before token generations existed end here
+            user.setTokenGeneration(in.available() > 0 ? in.readLong() : 0);
+            return user;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.quickstarts.kitchensink.model.Member;
+
+import java.util.List;
+
+public interface MemberBulkRepository {
+
+    // Up to limit members whose email is at emailDomain (lower case), in id order after afterId, or from the first
+    // when afterId is null. Pages are keyed on the last id, so each one starts where the index left off.
+    List<Member> findByEmailDomain(String emailDomain, String afterId, int limit);
+
+    // Writes each member's status, deleted flag and change sequence in one bulk write, skipping members that are
+    // deleted by then. Returns the ids of the members modified.
+    List<String> bulkUpdateState(List<Member> members);
+}
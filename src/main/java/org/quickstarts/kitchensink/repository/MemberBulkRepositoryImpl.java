@@ -0,0 +1,63 @@
+package org.quickstarts.kitchensink.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// MongoDB fragment of MemberRepository; picked up by Spring Data through the Impl suffix.
+@RequiredArgsConstructor
+public class MemberBulkRepositoryImpl implements MemberBulkRepository {
+    private final MongoTemplate mongoTemplate;
+
+    // Served by the email_domain index on (email_domain, _id)
+    @Override
+    public List<Member> findByEmailDomain(String emailDomain, String afterId, int limit) {
+        Criteria criteria = Criteria.where("emailDomain").is(emailDomain);
+        if (afterId != null) {
+            criteria.and("id").gt(afterId);
+        }
+        return mongoTemplate.find(new Query(criteria).with(Sort.by("id")).limit(limit), Member.class);
+    }
+
+    @Override
+    public List<String> bulkUpdateState(List<Member> members) {
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Member.class);
+        for (Member member : members) {
+            bulkOperations.updateOne(
+                    new Query(Criteria.where("_id").is(member.getId()).and("is_deleted").ne(true)),
+                    new Update()
+                            .set("is_active", member.getStatus())
+                            .set("is_deleted", member.isDeleted())
+                            .set("change_seq", member.getChangeSeq())
+                            .set("change_type", member.getChangeType()));
+        }
+        if (bulkOperations.execute().getModifiedCount() == members.size()) {
+            return members.stream().map(Member::getId).toList();
+        }
+        return modifiedIds(members);
+    }
+
+    // The bulk result only counts; a member carrying the change sequence it was given is one this write modified.
+    private List<String> modifiedIds(List<Member> members) {
+        Query query = new Query(Criteria.where("_id").in(members.stream().map(Member::getId).toList()));
+        query.fields().include("change_seq");
+        Map<String, Long> changeSeqs = mongoTemplate.find(query, Member.class).stream()
+                .collect(Collectors.toMap(Member::getId, Member::getChangeSeq));
+        return members.stream()
+                .filter(member -> Long.valueOf(member.getChangeSeq()).equals(changeSeqs.get(member.getId())))
+                .map(Member::getId)
+                .toList();
+    }
+}
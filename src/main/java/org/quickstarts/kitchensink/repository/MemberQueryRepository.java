@@ -0,0 +1,37 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Member reads with a sort order served by an index and an optional projection. A projection loads only the given
+ * properties plus the ones read endpoints need to decide visibility and ETags (deleted flag, status and change
+ * sequence); other properties come back null. Null fields means whole members.
+ */
+public interface MemberQueryRepository {
+
+    List<Member> findAllSorted(MemberSortKey sortKey, Sort.Direction direction, Collection<String> fields);
+
+    Optional<Member> findById(String id, Collection<String> fields);
+
+    // Active, non-deleted members containing any of the query's words, best text score first.
+    List<Member> searchText(String query, int limit);
+
+    // Members per status and deleted flag, members created on or after registrationsSince per UTC day of their
+    // ObjectId, and the change sequence of each member changed after changedAfter, all from one pass over the members.
+    MemberCounts countMembers(LocalDate registrationsSince, long changedAfter);
+
+    record StateCount(MemberStatus status, boolean deleted, long count) {
+    }
+
+    record MemberCounts(List<StateCount> states, Map<LocalDate, Long> registrations, Map<String, Long> changeSeqs) {
+    }
+}
@@ -0,0 +1,160 @@
+package org.quickstarts.kitchensink.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// MongoDB fragment of MemberRepository; picked up by Spring Data through the Impl suffix.
+@Slf4j
+@RequiredArgsConstructor
+public class MemberQueryRepositoryImpl implements MemberQueryRepository {
+    private static final Collation COLLATION = Collation.of(MemberSortKey.COLLATION_LOCALE)
+            .strength(MemberSortKey.COLLATION_STRENGTH);
+
+    private static final long INDEX_RECHECK_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final MongoTemplate mongoTemplate;
+
+    // Member indexes seen when the collection was last asked; a sort index missing from it is looked up again at most
+    // once per INDEX_RECHECK_MILLIS
+    private volatile Set<String> indexNames = Set.of();
+    private volatile long indexNamesCheckedAt;
+
+    // The hint pins the sort index; with the index's collation MongoDB walks it instead of sorting in memory. While
+    // the index does not exist, e.g. before the initializer has built it, the query runs unhinted rather than failing.
+    @Override
+    public List<Member> findAllSorted(MemberSortKey sortKey, Sort.Direction direction, Collection<String> fields) {
+        String indexName = sortKey.getIndexName();
+        if (!hasIndex(indexName)) {
+            return mongoTemplate.find(sortedQuery(sortKey, direction, fields, false), Member.class);
+        }
+        try {
+            return mongoTemplate.find(sortedQuery(sortKey, direction, fields, true), Member.class);
+        } catch (DataAccessException e) {
+            refreshIndexNames();
+            if (indexNames.contains(indexName)) {
+                throw e;
+            }
+            log.warn("Sort index {} is gone, listing members without it", indexName);
+            return mongoTemplate.find(sortedQuery(sortKey, direction, fields, false), Member.class);
+        }
+    }
+
+    @Override
+    public Optional<Member> findById(String id, Collection<String> fields) {
+        return Optional.ofNullable(mongoTemplate.findOne(project(new Query(Criteria.where("_id").is(id)), fields), Member.class));
+    }
+
+    // Served by the member_text index; matches whole words (stemmed), not prefixes.
+    @Override
+    public List<Member> searchText(String query, int limit) {
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matchingAny(query.trim().split("\\s+")))
+                .sortByScore()
+                .addCriteria(Criteria.where("isDeleted").ne(true).and("status").is(MemberStatus.ACTIVE))
+                .limit(limit);
+        return mongoTemplate.find(textQuery, Member.class);
+    }
+
+    // One $facet so every count and change sequence comes from the same read of each member; statistics tell from
+    // the change sequences which of their own recent writes the counts already include.
+    @Override
+    public MemberCounts countMembers(LocalDate registrationsSince, long changedAfter) {
+        ObjectId from = ObjectId.getSmallestWithDate(Date.from(registrationsSince.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        Document facets = new Document("states", List.of(new Document("$group", new Document("_id",
+                        new Document("deleted", "$is_deleted").append("status", "$is_active"))
+                        .append("count", new Document("$sum", 1)))))
+                .append("registrations", List.of(
+                        new Document("$match", new Document("_id", new Document("$gte", from))),
+                        new Document("$group", new Document("_id", new Document("$dateToString",
+                                new Document("format", "%Y-%m-%d").append("date", new Document("$toDate", "$_id"))))
+                                .append("count", new Document("$sum", 1)))))
+                .append("changed", List.of(
+                        new Document("$match", new Document("change_seq", new Document("$gt", changedAfter))),
+                        new Document("$project", new Document("change_seq", 1))));
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Member.class))
+                .aggregate(List.of(new Document("$facet", facets)))
+                .first();
+
+        List<StateCount> states = new ArrayList<>();
+        Map<LocalDate, Long> registrations = new TreeMap<>();
+        Map<String, Long> changeSeqs = new HashMap<>();
+        if (result != null) {
+            for (Document count : result.getList("states", Document.class)) {
+                Document group = count.get("_id", Document.class);
+                String status = group.getString("status");
+                states.add(new StateCount(status == null ? null : MemberStatus.valueOf(status),
+                        Boolean.TRUE.equals(group.getBoolean("deleted")), count.get("count", Number.class).longValue()));
+            }
+            for (Document count : result.getList("registrations", Document.class)) {
+                registrations.put(LocalDate.parse(count.getString("_id")), count.get("count", Number.class).longValue());
+            }
+            for (Document changed : result.getList("changed", Document.class)) {
+                changeSeqs.put(changed.getObjectId("_id").toHexString(), changed.get("change_seq", Number.class).longValue());
+            }
+        }
+        return new MemberCounts(states, registrations, changeSeqs);
+    }
+
+    private static Query sortedQuery(MemberSortKey sortKey, Sort.Direction direction, Collection<String> fields, boolean hint) {
+        Query query = new Query().with(sortKey.sort(direction));
+        if (hint) {
+            query.withHint(sortKey.getIndexName());
+        }
+        if (sortKey.isCollated()) {
+            query.collation(COLLATION);
+        }
+        return project(query, fields);
+    }
+
+    private boolean hasIndex(String indexName) {
+        if (!indexNames.contains(indexName) && System.currentTimeMillis() - indexNamesCheckedAt >= INDEX_RECHECK_MILLIS) {
+            refreshIndexNames();
+            if (!indexNames.contains(indexName)) {
+                log.warn("Sort index {} is missing, members are sorted without it until it exists", indexName);
+            }
+        }
+        return indexNames.contains(indexName);
+    }
+
+    private void refreshIndexNames() {
+        indexNamesCheckedAt = System.currentTimeMillis();
+        indexNames = mongoTemplate.indexOps(Member.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static Query project(Query query, Collection<String> fields) {
+        if (fields != null) {
+            query.fields().include("isDeleted", "status", "changeSeq");
+            fields.forEach(query.fields()::include);
+        }
+        return query;
+    }
+}
@@ -1,6 +1,7 @@
 package org.quickstarts.kitchensink.repository;
 
 import org.quickstarts.kitchensink.model.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -9,10 +10,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MemberRepository extends MongoRepository<Member, String> {
+public interface MemberRepository extends MongoRepository<Member, String>, MemberBulkRepository, MemberQueryRepository {
     Optional<Member> findByEmail(String email);
 
     List<Member> findAllOrderedBy(Sort sort);
 
     boolean existsByEmail(String email);
+
+    List<Member> findByChangeSeqGreaterThan(long changeSeq, Pageable pageable);
+
+    Optional<Member> findFirstByOrderByChangeSeqDesc();
 }
@@ -0,0 +1,25 @@
+package org.quickstarts.kitchensink.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MONGO_PROFILE_EXPRESSION;
+
+// Observed query shapes and their winning plans, collection scans first: GET /actuator/queryshapes
+@Component
+@Profile(MONGO_PROFILE_EXPRESSION)
+@Endpoint(id = "queryshapes")
+@RequiredArgsConstructor
+public class QueryShapeEndpoint {
+    private final QueryShapeGuard queryShapeGuard;
+
+    @ReadOperation
+    public List<QueryShapeGuard.ShapeReport> queryShapes() {
+        return queryShapeGuard.report();
+    }
+}
@@ -0,0 +1,283 @@
+package org.quickstarts.kitchensink.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.quickstarts.kitchensink.config.QueryGuardProperties;
+import org.quickstarts.kitchensink.exception.QueryShapeViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MONGO_PROFILE_EXPRESSION;
+
+/**
+ * Watches reads on the guarded collections through the driver's command listener. A query's shape is its command,
+ * collection, filter with values blanked out, sort, hint and collation. The first time a shape is seen it is queued
+ * to be explained, once, on a background thread, so the calling thread never waits on a second connection while it
+ * holds one; the verdict is cached when it arrives and every query of the shape bumps its count. Shapes whose winning
+ * plan contains a COLLSCAN are logged, and in strict mode the repository call that ran them fails when it returns,
+ * waiting for verdicts still pending (listener exceptions are swallowed by the driver, so the failure is raised by
+ * {@link org.quickstarts.kitchensink.aspect.QueryShapeAspect}). Queries without a filter read the whole collection
+ * on purpose and are not checked; neither are writes.
+ */
+@Slf4j
+@Component
+@Profile(MONGO_PROFILE_EXPRESSION)
+public class QueryShapeGuard implements CommandListener {
+    private static final Set<String> READ_COMMANDS = Set.of("find", "count", "distinct", "aggregate");
+    private static final List<String> EXPLAINED_KEYS = List.of(
+            "filter", "query", "key", "pipeline", "sort", "projection", "hint", "collation", "skip", "limit", "cursor");
+    private static final BsonString BLANK = new BsonString("?");
+
+    private final QueryGuardProperties queryGuardProperties;
+    private final ObjectProvider<MongoClient> mongoClient;
+
+    private final Executor explainer;
+
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    // Shapes the current repository call ran that scan the collection or are not explained yet; strict mode only
+    private final ThreadLocal<Set<Shape>> suspects = ThreadLocal.withInitial(LinkedHashSet::new);
+
+    // One thread explains queued shapes in turn, so the guard never holds more than one extra connection.
+    @Autowired
+    public QueryShapeGuard(QueryGuardProperties queryGuardProperties, ObjectProvider<MongoClient> mongoClient) {
+        this(queryGuardProperties, mongoClient,
+                Executors.newSingleThreadExecutor(Thread.ofVirtual().name("query-shape-explainer").factory()));
+    }
+
+    QueryShapeGuard(QueryGuardProperties queryGuardProperties, ObjectProvider<MongoClient> mongoClient, Executor explainer) {
+        this.queryGuardProperties = queryGuardProperties;
+        this.mongoClient = mongoClient;
+        this.explainer = explainer;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (queryGuardProperties.getMode() == QueryGuardProperties.Mode.OFF
+                || !READ_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        BsonValue collection = command.get(event.getCommandName());
+        if (collection == null || !collection.isString()
+                || !queryGuardProperties.getCollections().contains(collection.asString().getValue())) {
+            return;
+        }
+        BsonDocument filter = filter(event.getCommandName(), command);
+        if (filter == null || filter.isEmpty()) {
+            return;
+        }
+
+        String key = shapeKey(event.getCommandName(), collection.asString().getValue(), filter, command);
+        Shape shape = shapes.get(key);
+        if (shape == null) {
+            Shape queued = new Shape(key);
+            shape = Objects.requireNonNullElse(shapes.putIfAbsent(key, queued), queued);
+            if (shape == queued) {
+                queue(shape, event.getDatabaseName(), event.getCommandName(), command);
+            }
+        }
+        shape.executions.increment();
+        if (queryGuardProperties.getMode() == QueryGuardProperties.Mode.STRICT
+                && (shape.collectionScan || !shape.verdict.isDone())) {
+            suspects.get().add(shape);
+        }
+    }
+
+    // Called around each repository call: clears, then raises any collection scan the call ran in strict mode.
+    public void reset() {
+        suspects.remove();
+    }
+
+    public void check() {
+        Set<Shape> ran = suspects.get();
+        suspects.remove();
+        for (Shape shape : ran) {
+            try {
+                shape.verdict.get(queryGuardProperties.getExplainTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Query shape {} was not explained within {}", shape.key, queryGuardProperties.getExplainTimeout());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                continue;
+            }
+            if (shape.collectionScan) {
+                throw new QueryShapeViolationException("Query shape scans the collection: " + shape.key
+                        + " (plan " + shape.plan + ")");
+            }
+        }
+    }
+
+    public List<ShapeReport> report() {
+        return shapes.values().stream()
+                .map(shape -> new ShapeReport(shape.key, shape.plan, shape.collectionScan, shape.executions.sum()))
+                .sorted(Comparator.comparing(ShapeReport::collectionScan).reversed()
+                        .thenComparing(ShapeReport::executions, Comparator.reverseOrder()))
+                .toList();
+    }
+
+    public void clear() {
+        shapes.clear();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (explainer instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // The command is copied now; the driver's event document is only valid while the listener runs.
+    private void queue(Shape shape, String database, String commandName, BsonDocument command) {
+        BsonDocument explained = new BsonDocument(commandName, command.get(commandName));
+        EXPLAINED_KEYS.stream()
+                .filter(command::containsKey)
+                .forEach(name -> explained.append(name, command.get(name)));
+        BsonDocument copy = explained.clone();
+        try {
+            explainer.execute(() -> explain(shape, database, copy));
+        } catch (RejectedExecutionException e) {
+            shape.explained("unknown: " + e.getMessage(), false);
+        }
+    }
+
+    private void explain(Shape shape, String database, BsonDocument explained) {
+        try {
+            BsonDocument result = mongoClient.getObject().getDatabase(database).runCommand(new BsonDocument("explain", explained)
+                    .append("verbosity", new BsonString("queryPlanner")), BsonDocument.class);
+            List<String> stages = new ArrayList<>();
+            collectStages(result.containsKey("queryPlanner") ? result.getDocument("queryPlanner") : aggregatePlanner(result),
+                    stages);
+            shape.explained(String.join(" > ", stages), stages.contains("COLLSCAN"));
+            if (shape.collectionScan) {
+                log.warn("Query shape scans the collection: {} (plan {})", shape.key, shape.plan);
+            } else {
+                log.info("Query shape {} uses plan {}", shape.key, shape.plan);
+            }
+        } catch (Exception e) {
+            // Cached anyway, so a shape that cannot be explained is not re-explained on every query
+            log.warn("Could not explain query shape {}: {}", shape.key, e.getMessage());
+            shape.explained("unknown: " + e.getMessage(), false);
+        }
+    }
+
+    // Aggregates that are not pushed down whole nest the planner under their first stage.
+    private static BsonDocument aggregatePlanner(BsonDocument result) {
+        BsonArray stages = result.getArray("stages", new BsonArray());
+        if (stages.isEmpty()) {
+            return new BsonDocument();
+        }
+        return stages.get(0).asDocument().getDocument("$cursor", new BsonDocument())
+                .getDocument("queryPlanner", new BsonDocument());
+    }
+
+    // Stage names of the winning plan, outermost first.
+    private static void collectStages(BsonDocument queryPlanner, List<String> stages) {
+        BsonDocument plan = queryPlanner.getDocument("winningPlan", new BsonDocument());
+        // Slot-based engine plans wrap the classic plan in queryPlan
+        collectPlanStages(plan.getDocument("queryPlan", plan), stages);
+    }
+
+    private static void collectPlanStages(BsonDocument plan, List<String> stages) {
+        if (plan.containsKey("stage")) {
+            String stage = plan.getString("stage").getValue();
+            stages.add(plan.containsKey("indexName") ? stage + " " + plan.getString("indexName").getValue() : stage);
+        }
+        if (plan.containsKey("inputStage")) {
+            collectPlanStages(plan.getDocument("inputStage"), stages);
+        }
+        if (plan.containsKey("inputStages")) {
+            plan.getArray("inputStages").forEach(input -> collectPlanStages(input.asDocument(), stages));
+        }
+    }
+
+    private static BsonDocument filter(String commandName, BsonDocument command) {
+        return switch (commandName) {
+            case "find" -> command.getDocument("filter", null);
+            case "count", "distinct" -> command.getDocument("query", null);
+            // Only a leading $match can use an index; pipelines without one read the whole collection on purpose
+            default -> {
+                BsonArray pipeline = command.getArray("pipeline", new BsonArray());
+                yield pipeline.isEmpty() ? null : pipeline.get(0).asDocument().getDocument("$match", null);
+            }
+        };
+    }
+
+    private static String shapeKey(String commandName, String collection, BsonDocument filter, BsonDocument command) {
+        StringBuilder key = new StringBuilder(collection).append('.').append(commandName)
+                .append(' ').append(blank(filter).asDocument().toJson());
+        for (String option : List.of("sort", "hint", "collation")) {
+            if (command.containsKey(option)) {
+                key.append(' ').append(option).append(' ').append(command.get(option).toString());
+            }
+        }
+        return key.toString();
+    }
+
+    // Keeps field names and operators, replaces values, so queries differing only in values share a shape.
+    private static BsonValue blank(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument blanked = new BsonDocument();
+            value.asDocument().forEach((name, nested) -> blanked.append(name,
+                    name.startsWith("$") || nested.isDocument() ? blank(nested) : BLANK));
+            return blanked;
+        }
+        if (value.isArray() && value.asArray().stream().allMatch(BsonValue::isDocument)) {
+            BsonArray blanked = new BsonArray();
+            value.asArray().forEach(nested -> blanked.add(blank(nested)));
+            return blanked;
+        }
+        return BLANK;
+    }
+
+    private static final class Shape {
+        private final String key;
+        private volatile String plan = "pending";
+        private volatile boolean collectionScan;
+        // Completed once plan and collectionScan hold the explained verdict
+        private final CompletableFuture<Void> verdict = new CompletableFuture<>();
+        private final LongAdder executions = new LongAdder();
+
+        private Shape(String key) {
+            this.key = key;
+        }
+
+        private void explained(String plan, boolean collectionScan) {
+            this.plan = plan;
+            this.collectionScan = collectionScan;
+            verdict.complete(null);
+        }
+    }
+
+    public record ShapeReport(String shape, String plan, boolean collectionScan, long executions) {
+    }
+}
@@ -0,0 +1,12 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.quickstarts.kitchensink.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    long deleteByExpiresAtBefore(Date date);
+}
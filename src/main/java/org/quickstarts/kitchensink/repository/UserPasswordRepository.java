@@ -0,0 +1,12 @@
+package org.quickstarts.kitchensink.repository;
+
+import java.util.Date;
+import java.util.OptionalLong;
+
+public interface UserPasswordRepository {
+
+    // Replaces the password of the user with this email if it is still expectedPassword, and bumps the token
+    // generation in the same atomic write. Returns the new generation, or empty when no user has that email and
+    // password any more.
+    OptionalLong updatePassword(String email, String expectedPassword, String password, Date updatedAt);
+}
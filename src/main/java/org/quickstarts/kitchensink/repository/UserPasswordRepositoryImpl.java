@@ -0,0 +1,29 @@
+package org.quickstarts.kitchensink.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.quickstarts.kitchensink.model.User;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.OptionalLong;
+
+// MongoDB fragment of UserRepository; picked up by Spring Data through the Impl suffix.
+@RequiredArgsConstructor
+public class UserPasswordRepositoryImpl implements UserPasswordRepository {
+    private final MongoTemplate mongoTemplate;
+
+    // One findAndModify, so concurrent bumps each get their own generation and a stale copy never writes one back
+    @Override
+    public OptionalLong updatePassword(String email, String expectedPassword, String password, Date updatedAt) {
+        Query query = new Query(Criteria.where("email").is(email).and("password").is(expectedPassword));
+        query.fields().include("token_generation");
+        User user = mongoTemplate.findAndModify(query,
+                new Update().set("password", password).set("updatedAt", updatedAt).inc("token_generation", 1),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        return user == null ? OptionalLong.empty() : OptionalLong.of(user.getTokenGeneration());
+    }
+}
@@ -4,7 +4,12 @@ import org.quickstarts.kitchensink.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
-public interface UserRepository extends MongoRepository<User, Integer> {
+public interface UserRepository extends MongoRepository<User, Integer>, UserPasswordRepository {
     User findByEmail(String email);
+
+    List<User> findByUpdatedAtAfter(Date updatedAt);
 }
@@ -0,0 +1,197 @@
+package org.quickstarts.kitchensink.service;
+
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Verifies tokens in exactly the shape {@link JwtTokenService} issues: one of its two HS256 headers and a flat payload
+ * of {@code sub}, {@code jti}, {@code isRefreshToken}, {@code gen}, {@code iat} and {@code exp}. Anything else returns {@code null} so the caller
+ * can fall back to jjwt. The payload is read with a small byte-level parser instead of Jackson.
+ */
+class Hs256TokenVerifier {
+    private final String accessHeader;
+    private final String refreshHeader;
+    private final ThreadLocal<Mac> mac;
+
+    Hs256TokenVerifier(SecretKey key, String accessHeader, String refreshHeader) {
+        this.accessHeader = accessHeader;
+        this.refreshHeader = refreshHeader;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    VerifiedToken verify(String token) {
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+        boolean refresh;
+        if (token.regionMatches(0, accessHeader, 0, firstDot) && firstDot == accessHeader.length()) {
+            refresh = false;
+        } else if (token.regionMatches(0, refreshHeader, 0, firstDot) && firstDot == refreshHeader.length()) {
+            refresh = true;
+        } else {
+            return null;
+        }
+
+        byte[] signature;
+        byte[] payload;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(secondDot + 1));
+            payload = Base64.getUrlDecoder().decode(token.substring(firstDot + 1, secondDot));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        Mac hmac = mac.get();
+        hmac.update(token.getBytes(StandardCharsets.US_ASCII), 0, secondDot);
+        if (!MessageDigest.isEqual(hmac.doFinal(), signature)) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        VerifiedToken verified = new PayloadParser(payload).parse(refresh);
+        if (verified != null && verified.expiresAt() * 1000 <= System.currentTimeMillis()) {
+            throw new InvalidTokenException("Expired token");
+        }
+        return verified;
+    }
+
+    // Flat JSON object of string, boolean and integer members; returns null on anything else.
+    private static final class PayloadParser {
+        private final byte[] json;
+        private int position;
+
+        PayloadParser(byte[] json) {
+            this.json = json;
+        }
+
+        VerifiedToken parse(boolean refresh) {
+            String subject = null;
+            String tokenId = null;
+            Boolean isRefreshToken = null;
+            long issuedAt = -1;
+            long expiresAt = -1;
+            long generation = 0;
+
+            if (!consume('{')) {
+                return null;
+            }
+            while (!consume('}')) {
+                String name = readString();
+                if (name == null || !consume(':')) {
+                    return null;
+                }
+                switch (name) {
+                    case "sub" -> subject = readString();
+                    case "jti" -> tokenId = readString();
+                    case "isRefreshToken" -> isRefreshToken = readBoolean();
+                    case "iat" -> issuedAt = readLong();
+                    case "exp" -> expiresAt = readLong();
+                    case "gen" -> {
+                        if ((generation = readLong()) < 0) {
+                            return null;
+                        }
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+                if (!consume(',') && peek() != '}') {
+                    return null;
+                }
+            }
+            skipWhitespace();
+            if (position != json.length || subject == null || issuedAt < 0 || expiresAt < 0
+                    || (isRefreshToken != null && isRefreshToken != refresh)) {
+                return null;
+            }
+            return new VerifiedToken(subject, refresh, issuedAt, expiresAt, tokenId, generation);
+        }
+
+        private String readString() {
+            if (!consume('"')) {
+                return null;
+            }
+            int start = position;
+            while (position < json.length && json[position] != '"') {
+                if (json[position] == '\\') {
+                    return null;
+                }
+                position++;
+            }
+            if (position == json.length) {
+                return null;
+            }
+            return new String(json, start, position++ - start, StandardCharsets.UTF_8);
+        }
+
+        private Boolean readBoolean() {
+            skipWhitespace();
+            if (matches("true")) {
+                return true;
+            }
+            if (matches("false")) {
+                return false;
+            }
+            return null;
+        }
+
+        private long readLong() {
+            skipWhitespace();
+            long value = 0;
+            int start = position;
+            while (position < json.length && json[position] >= '0' && json[position] <= '9' && position - start < 18) {
+                value = value * 10 + (json[position++] - '0');
+            }
+            return position == start ? -1 : value;
+        }
+
+        private boolean matches(String literal) {
+            if (position + literal.length() > json.length) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[position + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            position += literal.length();
+            return true;
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (position < json.length && json[position] == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private int peek() {
+            skipWhitespace();
+            return position < json.length ? json[position] : -1;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length && (json[position] == ' ' || json[position] == '\t'
+                    || json[position] == '\n' || json[position] == '\r')) {
+                position++;
+            }
+        }
+    }
+}
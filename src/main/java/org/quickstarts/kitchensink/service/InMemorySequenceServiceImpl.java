@@ -0,0 +1,80 @@
+package org.quickstarts.kitchensink.service;
+
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.IN_MEMORY_PROFILE;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.LOG_STORE_PROFILE;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+
+@Service
+@Profile({IN_MEMORY_PROFILE, LOG_STORE_PROFILE})
+public class InMemorySequenceServiceImpl implements SequenceService {
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    // Resumes after the members a durable store recovered, so sync tokens keep moving forward.
+    @Autowired
+    public InMemorySequenceServiceImpl(MemberRepository memberRepository) {
+        long latestChangeSeq = memberRepository.findFirstByOrderByChangeSeqDesc()
+                .map(Member::getChangeSeq)
+                .orElse(0L);
+        counters.put(MEMBER_SEQUENCE, new Counter(latestChangeSeq));
+    }
+
+    @Override
+    public long next(String name) {
+        return next(name, 1);
+    }
+
+    @Override
+    public long next(String name, int count) {
+        return counter(name).next(count);
+    }
+
+    @Override
+    public long release(String name, long last) {
+        return counter(name).release(last);
+    }
+
+    @Override
+    public long committedUpTo(String name) {
+        return counter(name).committedUpTo();
+    }
+
+    private Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter(0));
+    }
+
+    private static final class Counter {
+        private long seq;
+        // Blocks handed out and not yet released, first value by last value
+        private final NavigableMap<Long, Long> inFlight = new TreeMap<>();
+
+        private Counter(long seq) {
+            this.seq = seq;
+        }
+
+        synchronized long next(int count) {
+            seq += count;
+            inFlight.put(seq, seq - count + 1);
+            return seq;
+        }
+
+        synchronized long release(long last) {
+            inFlight.remove(last);
+            return committedUpTo();
+        }
+
+        synchronized long committedUpTo() {
+            return inFlight.isEmpty() ? seq : inFlight.firstEntry().getValue() - 1;
+        }
+    }
+}
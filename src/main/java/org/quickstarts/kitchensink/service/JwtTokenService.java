@@ -1,36 +1,68 @@
 package org.quickstarts.kitchensink.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Slf4j
 @Service
 public class JwtTokenService {
     private final static long JWT_EXPIRATION = 1000 * 60 * 60; // 1 hour
-    private final static long REFRESH_EXPIRATION = 1000 * 60 * 60 * 24 * 7; // 1 week
+    public final static long REFRESH_EXPIRATION = 1000 * 60 * 60 * 24 * 7; // 1 week
+    private final static int MAX_TOKEN_LENGTH = 4096;
+    private final static ObjectMapper HEADER_MAPPER = new ObjectMapper();
 
     @Getter
     private final SecretKey key;
+    private final JwtParser parser;
+    private final Hs256TokenVerifier verifier;
+    private final TokenGenerationCache tokenGenerationCache;
 
+    // Standalone use (tests, benchmarks): every token is issued at generation 0.
     public JwtTokenService() {
+        this(null);
+    }
+
+    @Autowired
+    public JwtTokenService(TokenGenerationCache tokenGenerationCache) {
+        this.tokenGenerationCache = tokenGenerationCache;
         try {
             KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
             key = keyGen.generateKey();
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
+        parser = Jwts.parser().verifyWith(key).build();
+        verifier = new Hs256TokenVerifier(key, encodedHeader("access"), encodedHeader("refresh"));
+    }
+
+    // The header segment jjwt emits for a token type, so the fast path matches it byte for byte.
+    private String encodedHeader(String typ) {
+        String token = Jwts.builder().header().add("typ", typ).and().subject("").signWith(key).compact();
+        return token.substring(0, token.indexOf('.'));
     }
 
     public String generateToken(String username) {
@@ -44,6 +76,7 @@ public class JwtTokenService {
                 .and()
                 .subject(username)
                 .claim("isRefreshToken", false)
+                .claim("gen", generation(username))
                 .claims(extraClaims)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + JWT_EXPIRATION))
@@ -56,11 +89,18 @@ public class JwtTokenService {
     }
 
     public String generateRefreshToken(String username, Map<String, Object> extraClaims) {
+        return generateRefreshToken(username, UUID.randomUUID().toString(), extraClaims);
+    }
+
+    // tokenId becomes the jti that refresh token rotation tracks single use by.
+    public String generateRefreshToken(String username, String tokenId, Map<String, Object> extraClaims) {
         log.info("Generating refresh token for user: {}", username);
         return Jwts.builder()
                 .header().add("typ", "refresh")
                 .and()
+                .id(tokenId)
                 .subject(username)
+                .claim("gen", generation(username))
                 .claims(extraClaims)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION))
@@ -68,23 +108,92 @@ public class JwtTokenService {
                 .compact();
     }
 
+    private long generation(String username) {
+        return tokenGenerationCache == null ? 0 : tokenGenerationCache.current(username);
+    }
+
+    /**
+     * Checks signature and expiry once and returns the claims the filter needs. Tokens in the exact shape this
+     * service issues are verified without jjwt; anything else (extra claims, unfamiliar headers) goes through jjwt.
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken verified = verifier.verify(token);
+        if (verified != null) {
+            return verified;
+        }
+        try {
+            var jws = parser.parseSignedClaims(token);
+            Claims claims = jws.getPayload();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                throw new InvalidTokenException("Invalid token");
+            }
+            long issuedAt = claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime() / 1000;
+            return new VerifiedToken(claims.getSubject(), "refresh".equals(jws.getHeader().get("typ")),
+                    issuedAt, claims.getExpiration().getTime() / 1000, claims.getId(),
+                    claims.get("gen") instanceof Number generation ? generation.longValue() : 0);
+        } catch (ExpiredJwtException e) {
+            throw new InvalidTokenException("Expired token");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+    }
+
     public boolean validateToken(String token, UserDetails userDetails) {
-        log.info("Validating token for user: {}", userDetails.getUsername());
+        log.debug("Validating token for user: {}", userDetails.getUsername());
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
 
     public boolean isRefreshToken(String token) {
-        log.info("Checking if refresh token is valid: {}", token);
-        String typ = (String) Jwts.parser()
-                .verifyWith(key)
-                .build()
+        log.debug("Checking if token is a refresh token");
+        String typ = (String) parser
                 .parseSignedClaims(token)
                 .getHeader()
                 .get("typ");
         return typ.equals("refresh");
     }
 
+    /**
+     * Cheap structural check run before any signature work: three non-empty base64url segments and a header
+     * naming HS256 and one of the token types this service issues.
+     */
+    public boolean isWellFormed(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return false;
+                }
+            } else if (!isBase64Url(c)) {
+                return false;
+            }
+        }
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == token.length() - 1) {
+            return false;
+        }
+
+        try {
+            JsonNode header = HEADER_MAPPER.readTree(Base64.getUrlDecoder().decode(token.substring(0, firstDot)));
+            String typ = header.path("typ").asText();
+            return "HS256".equals(header.path("alg").asText()) && ("access".equals(typ) || "refresh".equals(typ));
+        } catch (IllegalArgumentException | IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -100,7 +209,7 @@ public class JwtTokenService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     Boolean isTokenExpired(String token) {
@@ -0,0 +1,224 @@
+package org.quickstarts.kitchensink.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.config.StreamProperties;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fans member change events out to SSE subscribers. Sends block on slow clients, so the relay thread only appends to
+ * each subscriber's bounded queue and a sender thread per busy subscriber drains it. A subscriber whose queue
+ * overflows is disconnected; it reconnects with Last-Event-ID and catches up from the replay buffer or gets a reset.
+ */
+@Slf4j
+@Service
+public class MemberChangeStreamService {
+    private static final StreamedEvent HEARTBEAT = new StreamedEvent(null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final StreamProperties streamProperties;
+    private final Executor senders;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Guards the buffer and the order events enter subscriber queues in; nothing is sent while holding it
+    private final Deque<StreamedEvent> replayBuffer = new ArrayDeque<>();
+
+    @Autowired
+    public MemberChangeStreamService(ObjectMapper objectMapper, StreamProperties streamProperties) {
+        this(objectMapper, streamProperties, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    MemberChangeStreamService(ObjectMapper objectMapper, StreamProperties streamProperties, Executor senders) {
+        this.objectMapper = objectMapper;
+        this.streamProperties = streamProperties;
+        this.senders = senders;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = createEmitter(streamProperties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (replayBuffer) {
+            List<StreamedEvent> missed = lastEventId == null ? List.of() : missedSince(lastEventId);
+            if (missed == null) {
+                // The client is further behind than the buffer reaches, it has to reload the full list.
+                reset(emitter);
+                return emitter;
+            }
+            missed.forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+        log.info("Member change stream subscribed, {} active subscribers", subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onMemberChange(MemberChangeEvent event) {
+        StreamedEvent streamedEvent;
+        try {
+            streamedEvent = new StreamedEvent(event.getId(), event.getType().name().toLowerCase(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize member change event {}", event.getId(), e);
+            return;
+        }
+
+        synchronized (replayBuffer) {
+            replayBuffer.addLast(streamedEvent);
+            while (replayBuffer.size() > streamProperties.getReplayBufferSize()) {
+                replayBuffer.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(streamedEvent);
+            }
+        }
+    }
+
+    // Idle connections only cost a socket; the periodic comment lets us notice the ones that went away.
+    @Scheduled(fixedDelayString = "${kitchensink.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (senders instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    // Events after lastEventId, or null when it is no longer buffered or more were missed than a queue holds.
+    private List<StreamedEvent> missedSince(String lastEventId) {
+        List<StreamedEvent> missed = new ArrayList<>();
+        Iterator<StreamedEvent> iterator = replayBuffer.descendingIterator();
+        while (iterator.hasNext()) {
+            StreamedEvent streamedEvent = iterator.next();
+            if (streamedEvent.id().equals(lastEventId)) {
+                return missed.size() <= streamProperties.getSubscriberQueueSize() ? missed : null;
+            }
+            missed.addFirst(streamedEvent);
+        }
+        return null;
+    }
+
+    private static void reset(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().name("reset").data("{}"));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Guarded by this
+        private final Deque<StreamedEvent> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Never blocks: queues the event and starts a sender unless one is already draining.
+        void offer(StreamedEvent streamedEvent) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= streamProperties.getSubscriberQueueSize()) {
+                    log.warn("Member change stream subscriber fell {} events behind, disconnecting it", queue.size());
+                    closed = true;
+                    queue.clear();
+                    subscribers.remove(this);
+                } else {
+                    queue.addLast(streamedEvent);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                StreamedEvent streamedEvent;
+                boolean disconnect;
+                synchronized (this) {
+                    streamedEvent = queue.pollFirst();
+                    if (streamedEvent == null) {
+                        draining = false;
+                    }
+                    disconnect = closed;
+                }
+                if (streamedEvent == null) {
+                    // Queues that overflowed are emptied, so the sender ends up here and hangs up
+                    if (disconnect) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                if (!send(streamedEvent)) {
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        closed = true;
+                        queue.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private boolean send(StreamedEvent streamedEvent) {
+            try {
+                emitter.send(streamedEvent == HEARTBEAT
+                        ? SseEmitter.event().comment("heartbeat")
+                        : SseEmitter.event()
+                                .id(streamedEvent.id())
+                                .name(streamedEvent.name())
+                                .data(streamedEvent.data()));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                return false;
+            }
+        }
+    }
+
+    private record StreamedEvent(String id, String name, String data) {
+    }
+}
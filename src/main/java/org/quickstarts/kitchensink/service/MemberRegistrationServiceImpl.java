@@ -1,29 +1,63 @@
 package org.quickstarts.kitchensink.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.MemberStatistics;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
 import org.quickstarts.kitchensink.model.Member;
 import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.util.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
 
 @Slf4j
 @Service
 public class MemberRegistrationServiceImpl implements MemberRegistrationService {
     private final MemberRepository memberRepository;
 
-    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SequenceService sequenceService;
+
+    private final MemberVersionTracker memberVersionTracker;
+
+    private final MemberStatistics memberStatistics;
 
     @Autowired
-    public MemberRegistrationServiceImpl(MemberRepository memberRepository, ApplicationEventPublisher applicationEventPublisher) {
+    public MemberRegistrationServiceImpl(MemberRepository memberRepository,
+                                         SequenceService sequenceService,
+                                         MemberVersionTracker memberVersionTracker,
+                                         MemberStatistics memberStatistics) {
         this.memberRepository = memberRepository;
-        this.applicationEventPublisher = applicationEventPublisher;
+        this.sequenceService = sequenceService;
+        this.memberVersionTracker = memberVersionTracker;
+        this.memberStatistics = memberStatistics;
     }
 
     @Override
+    @Transactional
     public void register(Member member) {
         log.info("Registering member: {}", member.getEmail());
-        memberRepository.save(member); // Save the member to MongoDB
-        applicationEventPublisher.publishEvent(member); // Publish the event
+        member.setChangeSeq(sequenceService.next(MEMBER_SEQUENCE));
+        member.setChangeType(MemberChangeType.CREATED); // Relayed by MemberOutboxRelay
+        try {
+            memberRepository.save(member); // Save the member to MongoDB
+        } finally {
+            releaseAfterCompletion(member.getChangeSeq());
+        }
+        memberStatistics.recordAfterCommit(null, member);
+    }
+
+    // Once the write is over, committed or not, its sequence stops holding back sync tokens and the collection
+    // version moves to the new committed mark. A release that fails is left to the lease.
+    private void releaseAfterCompletion(long changeSeq) {
+        TransactionUtils.afterCompletion(() -> {
+            try {
+                memberVersionTracker.advance(sequenceService.release(MEMBER_SEQUENCE, changeSeq));
+            } catch (Exception e) {
+                log.warn("Could not release change sequence {}: {}", changeSeq, e.getMessage());
+            }
+        });
     }
 }
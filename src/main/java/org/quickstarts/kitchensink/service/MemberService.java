@@ -1,9 +1,17 @@
 package org.quickstarts.kitchensink.service;
 
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.enums.MemberStatus;
 import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.MemberBulkResultDTO;
+import org.quickstarts.kitchensink.pojo.MemberSelectionDTO;
+import org.quickstarts.kitchensink.pojo.MemberStatsDTO;
+import org.springframework.data.domain.Sort;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface MemberService {
 
@@ -13,11 +21,32 @@ public interface MemberService {
 
     List<Member> findAllOrderedByName();
 
+    List<Member> findAllSorted(MemberSortKey sortKey, Sort.Direction direction, Set<String> fields);
+
     Optional<Member> findById(String id);
 
-    void save(Member member);
+    Optional<Member> findById(String id, Set<String> fields);
+
+    List<Member> findAllById(Collection<String> ids);
+
+    List<Member> search(String query, int limit);
+
+    // before is the member as the caller loaded it, or null for a new member; it tells which statistics move.
+    void save(Member before, Member member);
 
     boolean isEmailExist(String email);
 
     void delete(Member member);
+
+    // Highest change sequence below which no member write is still in flight.
+    long getCommittedChangeSeq();
+
+    // Members changed after changeSeq and up to upTo, in change order.
+    List<Member> findChangedSince(long changeSeq, long upTo, int limit);
+
+    MemberBulkResultDTO bulkChangeStatus(MemberSelectionDTO selection, MemberStatus status);
+
+    MemberBulkResultDTO bulkDelete(MemberSelectionDTO selection);
+
+    MemberStatsDTO getStats();
 }
@@ -1,23 +1,76 @@
 package org.quickstarts.kitchensink.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.MemberBatchLoader;
+import org.quickstarts.kitchensink.cache.MemberLookupCoalescer;
+import org.quickstarts.kitchensink.cache.MemberResponseCache;
+import org.quickstarts.kitchensink.cache.MemberSearchIndex;
+import org.quickstarts.kitchensink.cache.MemberStatistics;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.config.MemberBulkProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.enums.MemberStatus;
 import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.MemberBulkResultDTO;
+import org.quickstarts.kitchensink.pojo.MemberSelectionDTO;
+import org.quickstarts.kitchensink.pojo.MemberStatsDTO;
 import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.util.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
 
 @Slf4j
 @Service
 public class MemberServiceImpl implements MemberService {
     private final MemberRepository memberRepository;
+    private final SequenceService sequenceService;
+    private final MemberVersionTracker memberVersionTracker;
+    private final MemberResponseCache memberResponseCache;
+    private final MemberLookupCoalescer memberLookupCoalescer;
+    private final MemberBatchLoader memberBatchLoader;
+    private final MemberBulkProperties memberBulkProperties;
+    private final MemberSearchIndex memberSearchIndex;
+    private final MemberStatistics memberStatistics;
+    private final TransactionOperations bulkTransactions;
 
     @Autowired
-    public MemberServiceImpl(MemberRepository memberRepository) {
+    public MemberServiceImpl(MemberRepository memberRepository,
+                             SequenceService sequenceService,
+                             MemberVersionTracker memberVersionTracker,
+                             MemberResponseCache memberResponseCache,
+                             MemberLookupCoalescer memberLookupCoalescer,
+                             MemberBatchLoader memberBatchLoader,
+                             MemberBulkProperties memberBulkProperties,
+                             MemberSearchIndex memberSearchIndex,
+                             MemberStatistics memberStatistics,
+                             TransactionOperations bulkTransactions) {
         this.memberRepository = memberRepository;
+        this.sequenceService = sequenceService;
+        this.memberVersionTracker = memberVersionTracker;
+        this.memberResponseCache = memberResponseCache;
+        this.memberLookupCoalescer = memberLookupCoalescer;
+        this.memberBatchLoader = memberBatchLoader;
+        this.memberBulkProperties = memberBulkProperties;
+        this.memberSearchIndex = memberSearchIndex;
+        this.memberStatistics = memberStatistics;
+        this.bulkTransactions = bulkTransactions;
     }
 
     @Override
@@ -29,25 +82,73 @@ public class MemberServiceImpl implements MemberService {
     @Override
     public Optional<Member> findByEmail(String email) {
         log.info("Finding member by email: {}", email);
-        return memberRepository.findByEmail(email);
+        return memberLookupCoalescer.findByEmail(email, () -> memberRepository.findByEmail(email));
     }
 
     @Override
     public List<Member> findAllOrderedByName() {
         log.info("Finding all members by name");
-        return memberRepository.findAllOrderedBy(Sort.by("name"));
+        return findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
+    }
+
+    @Override
+    public List<Member> findAllSorted(MemberSortKey sortKey, Sort.Direction direction, Set<String> fields) {
+        log.info("Finding all members by {} {} with fields {}", sortKey.getParameter(), direction, fields);
+        return memberRepository.findAllSorted(sortKey, direction, fields);
+    }
+
+    // Projected lookups skip coalescing and batching, which share whole members between callers.
+    @Override
+    public Optional<Member> findById(String id, Set<String> fields) {
+        log.info("Finding a member by id with fields {}", fields);
+        return memberRepository.findById(id, fields);
     }
 
     @Override
     public Optional<Member> findById(String id) {
         log.info("Finding a member by id");
-        return memberRepository.findById(id);
+        return memberLookupCoalescer.findById(id, memberBatchLoader.isEnabled()
+                ? () -> memberBatchLoader.load(id)
+                : () -> memberRepository.findById(id));
+    }
+
+    @Override
+    public List<Member> findAllById(Collection<String> ids) {
+        log.info("Finding {} members by id", ids.size());
+        return memberRepository.findAllById(ids);
     }
 
+    // Only active, non-deleted members are searchable.
     @Override
-    public void save(Member member) {
+    public List<Member> search(String query, int limit) {
+        if (memberSearchIndex.isReady()) {
+            log.info("Searching members in the search index");
+            return memberSearchIndex.search(query, limit);
+        }
+        log.info("Searching members in the text index");
+        return memberRepository.searchText(query, limit);
+    }
+
+    @Override
+    public MemberStatsDTO getStats() {
+        log.info("Reading member statistics");
+        return memberStatistics.getStats();
+    }
+
+    @Override
+    @Transactional
+    public void save(Member before, Member member) {
         log.info("Saving a member");
-        memberRepository.save(member);
+        member.setChangeSeq(sequenceService.next(MEMBER_SEQUENCE));
+        member.setChangeType(MemberChangeType.UPDATED);
+        try {
+            memberRepository.save(member);
+        } finally {
+            releaseAfterCompletion(member.getChangeSeq());
+        }
+        memberResponseCache.invalidateAfterCommit(member.getId());
+        memberLookupCoalescer.forgetAfterCommit(member);
+        memberStatistics.recordAfterCommit(before, member);
     }
 
     @Override
@@ -57,9 +158,138 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
+    @Transactional
     public void delete(Member member) {
         log.info("Deleting a member: {}", member.getId());
+        Member before = member.copy();
         member.setDeleted(true);
-        memberRepository.save(member);
+        member.setChangeSeq(sequenceService.next(MEMBER_SEQUENCE));
+        member.setChangeType(MemberChangeType.DELETED);
+        try {
+            memberRepository.save(member);
+        } finally {
+            releaseAfterCompletion(member.getChangeSeq());
+        }
+        memberResponseCache.invalidateAfterCommit(member.getId());
+        memberLookupCoalescer.forgetAfterCommit(member);
+        memberStatistics.recordAfterCommit(before, member);
+    }
+
+    @Override
+    public long getCommittedChangeSeq() {
+        return sequenceService.committedUpTo(MEMBER_SEQUENCE);
+    }
+
+    // Pages are in change order, so everything from the first member past upTo on is cut.
+    @Override
+    public List<Member> findChangedSince(long changeSeq, long upTo, int limit) {
+        log.info("Finding members changed after sequence {} up to {}", changeSeq, upTo);
+        return memberRepository.findByChangeSeqGreaterThan(changeSeq, PageRequest.of(0, limit, Sort.by("changeSeq")))
+                .stream()
+                .takeWhile(member -> member.getChangeSeq() <= upTo)
+                .toList();
+    }
+
+    @Override
+    public MemberBulkResultDTO bulkChangeStatus(MemberSelectionDTO selection, MemberStatus status) {
+        log.info("Marking selected members {}", status);
+        return bulkApply(selection, MemberChangeType.UPDATED,
+                member -> !member.isDeleted(),
+                member -> member.getStatus() != status,
+                member -> member.setStatus(status));
+    }
+
+    @Override
+    public MemberBulkResultDTO bulkDelete(MemberSelectionDTO selection) {
+        log.info("Deleting selected members");
+        // Same rule as deleting one member: only active, not yet deleted members can be deleted
+        return bulkApply(selection, MemberChangeType.DELETED,
+                member -> !member.isDeleted() && member.isActive(),
+                member -> true,
+                member -> member.setDeleted(true));
+    }
+
+    /**
+     * Applies change to every selected member that matches and needs it, one page at a time. Each page commits on its
+     * own, so only one page of members is held and its block of change sequences is released before the next page
+     * takes one; a bulk call that fails part way keeps the pages already committed.
+     */
+    private MemberBulkResultDTO bulkApply(MemberSelectionDTO selection, MemberChangeType type,
+                                          Predicate<Member> matches, Predicate<Member> needsChange,
+                                          Consumer<Member> change) {
+        long matched = 0;
+        long modified = 0;
+        int pageSize = memberBulkProperties.getBatchSize();
+        String lastId = null;
+        while (true) {
+            List<Member> candidates = selection.getIds() != null
+                    ? memberRepository.findAllById(selection.getIds())
+                    : memberRepository.findByEmailDomain(selection.getEmailDomain().toLowerCase(Locale.ROOT), lastId, pageSize);
+
+            List<Member> batch = new ArrayList<>();
+            for (Member member : candidates) {
+                if (matches.test(member)) {
+                    matched++;
+                    if (needsChange.test(member)) {
+                        batch.add(member);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                Integer pageModified = bulkTransactions.execute(transaction -> applyPage(batch, type, change));
+                modified += pageModified == null ? 0 : pageModified;
+            }
+            if (selection.getIds() != null || candidates.size() < pageSize) {
+                break;
+            }
+            lastId = candidates.getLast().getId();
+        }
+        return new MemberBulkResultDTO(matched, modified);
+    }
+
+    // One block of change sequences and one bulk write; caches and statistics follow once the page commits.
+    private int applyPage(List<Member> batch, MemberChangeType type, Consumer<Member> change) {
+        long lastChangeSeq = sequenceService.next(MEMBER_SEQUENCE, batch.size());
+        long changeSeq = lastChangeSeq - batch.size();
+        List<Member> batchBefore = new ArrayList<>();
+        for (Member member : batch) {
+            batchBefore.add(member.copy());
+            change.accept(member);
+            member.setChangeSeq(++changeSeq);
+            member.setChangeType(type);
+        }
+        Set<String> modifiedIds;
+        try {
+            modifiedIds = new HashSet<>(memberRepository.bulkUpdateState(batch));
+        } finally {
+            releaseAfterCompletion(lastChangeSeq);
+        }
+        // Members deleted since they were read are skipped by the write; only the rest changed
+        List<Member> before = new ArrayList<>();
+        List<Member> changed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (modifiedIds.contains(batch.get(i).getId())) {
+                before.add(batchBefore.get(i));
+                changed.add(batch.get(i));
+            }
+        }
+        if (!changed.isEmpty()) {
+            memberResponseCache.invalidateAllAfterCommit(changed.stream().map(Member::getId).toList());
+            memberLookupCoalescer.forgetAllAfterCommit(changed);
+            memberStatistics.recordAllAfterCommit(before, changed);
+        }
+        return changed.size();
+    }
+
+    // Once the write is over, committed or not, its sequences stop holding back sync tokens and the collection
+    // version moves to the new committed mark. A release that fails is left to the lease.
+    private void releaseAfterCompletion(long changeSeq) {
+        TransactionUtils.afterCompletion(() -> {
+            try {
+                memberVersionTracker.advance(sequenceService.release(MEMBER_SEQUENCE, changeSeq));
+            } catch (Exception e) {
+                log.warn("Could not release change sequence {}: {}", changeSeq, e.getMessage());
+            }
+        });
     }
 }
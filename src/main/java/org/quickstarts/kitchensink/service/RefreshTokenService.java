@@ -0,0 +1,7 @@
+package org.quickstarts.kitchensink.service;
+
+import org.quickstarts.kitchensink.pojo.AuthResponseDTO;
+
+public interface RefreshTokenService {
+    AuthResponseDTO refresh(String refreshToken);
+}
@@ -0,0 +1,94 @@
+package org.quickstarts.kitchensink.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.ConsumedRefreshTokenCache;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.model.RefreshToken;
+import org.quickstarts.kitchensink.pojo.AuthResponseDTO;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.quickstarts.kitchensink.repository.RefreshTokenRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * Exchanges a refresh token for a new access/refresh pair. Each refresh token is single use: exchanging it inserts a
+ * record keyed by its jti, and the unique _id makes a concurrent second exchange fail. Presenting a used token again
+ * revokes every token issued from it, since either the client or whoever stole the token is now holding a live one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+    private static final int MAX_REVOCATION_CHAIN = 1000;
+
+    private final JwtTokenService jwtTokenService;
+    private final UserService userService;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ConsumedRefreshTokenCache consumedRefreshTokenCache;
+    private final TokenGenerationCache tokenGenerationCache;
+
+    @Override
+    public AuthResponseDTO refresh(String refreshToken) {
+        VerifiedToken verified = jwtTokenService.verify(refreshToken);
+        if (!verified.refreshToken() || verified.tokenId() == null) {
+            throw new InvalidTokenException("Not a refresh token");
+        }
+        if (!tokenGenerationCache.isCurrent(verified.username(), verified.generation())) {
+            throw new InvalidTokenException("Revoked token");
+        }
+        if (consumedRefreshTokenCache.contains(verified.tokenId())) {
+            revokeDescendants(verified);
+            throw new InvalidTokenException("Refresh token reused");
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = userService.loadUserByUsername(verified.username());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidTokenException("Unknown user");
+        }
+        if (!userDetails.isEnabled()) {
+            throw new InvalidTokenException("User disabled");
+        }
+
+        String nextTokenId = UUID.randomUUID().toString();
+        try {
+            refreshTokenRepository.insert(new RefreshToken(verified.tokenId(), verified.username(), nextTokenId,
+                    new Date(verified.expiresAt() * 1000)));
+        } catch (DuplicateKeyException e) {
+            consumedRefreshTokenCache.add(verified.tokenId(), verified.expiresAt() * 1000);
+            revokeDescendants(verified);
+            throw new InvalidTokenException("Refresh token reused");
+        }
+        consumedRefreshTokenCache.add(verified.tokenId(), verified.expiresAt() * 1000);
+
+        return new AuthResponseDTO(jwtTokenService.generateToken(verified.username()),
+                jwtTokenService.generateRefreshToken(verified.username(), nextTokenId, new HashMap<>()));
+    }
+
+    // Walks the rotation chain from a reused token and marks the live token at its end as used.
+    private void revokeDescendants(VerifiedToken reused) {
+        log.warn("Refresh token reuse for user {}; revoking its descendants", reused.username());
+        String tokenId = refreshTokenRepository.findById(reused.tokenId())
+                .map(RefreshToken::getReplacedBy)
+                .orElse(null);
+        Date expiresAt = new Date(System.currentTimeMillis() + JwtTokenService.REFRESH_EXPIRATION);
+        for (int i = 0; tokenId != null && i < MAX_REVOCATION_CHAIN; i++) {
+            try {
+                refreshTokenRepository.insert(new RefreshToken(tokenId, reused.username(), null, expiresAt));
+                consumedRefreshTokenCache.add(tokenId, expiresAt.getTime());
+                return;
+            } catch (DuplicateKeyException e) {
+                tokenId = refreshTokenRepository.findById(tokenId).map(RefreshToken::getReplacedBy).orElse(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.quickstarts.kitchensink.service;
+
+/**
+ * Named counters. Values are handed out in allocation order but their writes may land in any order, so each block
+ * stays in flight until its writer releases it; {@link #committedUpTo} never passes a block still in flight.
+ */
+public interface SequenceService {
+
+    long next(String name);
+
+    // Reserves count consecutive values and returns the last one.
+    long next(String name, int count);
+
+    // Releases the block ending at last, written or not, and returns the new committed mark.
+    long release(String name, long last);
+
+    // Highest value such that no value at or below it is still in flight.
+    long committedUpTo(String name);
+}
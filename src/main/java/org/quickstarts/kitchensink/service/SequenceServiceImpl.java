@@ -0,0 +1,86 @@
+package org.quickstarts.kitchensink.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.quickstarts.kitchensink.config.SequenceProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MONGO_PROFILE_EXPRESSION;
+
+/**
+ * Counters live in the {@code counters} collection, one document per name holding the last value handed out and the
+ * leases of blocks still in flight. Allocating bumps the counter and adds the lease in one update, so no reader sees
+ * the counter past a block without also seeing its lease. Leases of writers that never released expire.
+ */
+@Service
+@Profile(MONGO_PROFILE_EXPRESSION)
+@RequiredArgsConstructor
+public class SequenceServiceImpl implements SequenceService {
+    private static final String COUNTERS_COLLECTION = "counters";
+
+    private final MongoTemplate mongoTemplate;
+    private final SequenceProperties sequenceProperties;
+
+    @Override
+    public long next(String name) {
+        return next(name, 1);
+    }
+
+    @Override
+    public long next(String name, int count) {
+        Document seq = new Document("$add", List.of(new Document("$ifNull", List.of("$seq", 0L)), (long) count));
+        Document lease = new Document("first", new Document("$subtract", List.of("$seq", count - 1L)))
+                .append("last", "$seq")
+                .append("expires_at", new Document("$add", List.of("$$NOW", sequenceProperties.getLease().toMillis())));
+        Document liveLeases = new Document("$filter", new Document("input", new Document("$ifNull", List.of("$leases", List.of())))
+                .append("cond", new Document("$gt", List.of("$$this.expires_at", "$$NOW"))));
+        Document counter = counters().findOneAndUpdate(Filters.eq("_id", name),
+                List.of(new Document("$set", new Document("seq", seq)),
+                        new Document("$set", new Document("leases", new Document("$concatArrays", List.of(liveLeases, List.of(lease)))))),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return counter.get("seq", Number.class).longValue();
+    }
+
+    @Override
+    public long release(String name, long last) {
+        Document counter = counters().findOneAndUpdate(Filters.eq("_id", name),
+                Updates.pull("leases", new Document("last", last)),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        return committedUpTo(counter);
+    }
+
+    @Override
+    public long committedUpTo(String name) {
+        return committedUpTo(counters().find(Filters.eq("_id", name)).first());
+    }
+
+    private static long committedUpTo(Document counter) {
+        if (counter == null) {
+            return 0;
+        }
+        long committed = counter.get("seq", Number.class).longValue();
+        Date now = new Date();
+        for (Document lease : counter.getList("leases", Document.class, List.of())) {
+            if (lease.getDate("expires_at").after(now)) {
+                committed = Math.min(committed, lease.get("first", Number.class).longValue() - 1);
+            }
+        }
+        return committed;
+    }
+
+    // Straight from the database factory, so counter updates never join a member transaction and concurrent
+    // writers never conflict on the counter document.
+    private MongoCollection<Document> counters() {
+        return mongoTemplate.getMongoDatabaseFactory().getMongoDatabase().getCollection(COUNTERS_COLLECTION);
+    }
+}
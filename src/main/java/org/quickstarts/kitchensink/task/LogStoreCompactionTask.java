@@ -0,0 +1,37 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.config.LogStoreProperties;
+import org.quickstarts.kitchensink.repository.LogStructuredMemberRepository;
+import org.quickstarts.kitchensink.repository.LogStructuredUserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.LOG_STORE_PROFILE;
+
+// Drops overwritten and deleted records once they make up compaction-threshold of a log.
+@Slf4j
+@Component
+@Profile(LOG_STORE_PROFILE)
+@RequiredArgsConstructor
+public class LogStoreCompactionTask {
+    private final LogStructuredMemberRepository memberRepository;
+    private final LogStructuredUserRepository userRepository;
+    private final LogStoreProperties logStoreProperties;
+
+    @Scheduled(fixedDelayString = "${kitchensink.log-store.compaction-interval:PT5M}")
+    public void compact() {
+        try {
+            if (memberRepository.compact(logStoreProperties.getCompactionThreshold())) {
+                log.info("Compacted member log");
+            }
+            if (userRepository.compact(logStoreProperties.getCompactionThreshold())) {
+                log.info("Compacted user log");
+            }
+        } catch (Exception e) {
+            log.warn("Could not compact log store: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.config.OutboxProperties;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.service.SequenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+
+/**
+ * Publishes member changes to this instance's listeners. A member write stamps the change sequence and type on the
+ * member document itself, so the change is recorded by the same single-document write, transaction or not. The relay
+ * reads members past its cursor in change order, up to the committed mark so a write landing out of order is not
+ * skipped. Each instance keeps its own cursor and nothing is deleted, so every instance sees every change; a member
+ * changed twice between polls is published once, in its latest state.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "kitchensink.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MemberOutboxRelay {
+    private static final long UNSET = -1;
+
+    private final MemberRepository memberRepository;
+    private final SequenceService sequenceService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final OutboxProperties outboxProperties;
+
+    private long cursor = UNSET;
+
+    @Autowired
+    public MemberOutboxRelay(MemberRepository memberRepository, SequenceService sequenceService,
+                             ApplicationEventPublisher applicationEventPublisher, OutboxProperties outboxProperties) {
+        this.memberRepository = memberRepository;
+        this.sequenceService = sequenceService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.outboxProperties = outboxProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${kitchensink.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        try {
+            long committedSeq = sequenceService.committedUpTo(MEMBER_SEQUENCE);
+            if (cursor == UNSET) {
+                // Listeners start out empty or load from the database, so a new instance starts at the current mark
+                cursor = committedSeq;
+                return;
+            }
+            int delivered;
+            do {
+                delivered = relayBatch(committedSeq);
+            } while (delivered == outboxProperties.getBatchSize());
+        } catch (Exception e) {
+            log.warn("Member outbox relay failed, will retry on next poll: {}", e.getMessage());
+        }
+    }
+
+    // The cursor moves only after every listener has seen the batch, so a failure in between redelivers it.
+    int relayBatch(long committedSeq) {
+        List<Member> batch = memberRepository.findByChangeSeqGreaterThan(cursor,
+                        PageRequest.of(0, outboxProperties.getBatchSize(), Sort.by("changeSeq")))
+                .stream()
+                .takeWhile(member -> member.getChangeSeq() <= committedSeq)
+                .toList();
+
+        batch.forEach(member -> applicationEventPublisher.publishEvent(MemberChangeEvent.of(member)));
+        cursor = batch.size() == outboxProperties.getBatchSize()
+                ? batch.getLast().getChangeSeq()
+                : Math.max(cursor, committedSeq);
+        if (!batch.isEmpty()) {
+            log.debug("Relayed {} member change events", batch.size());
+        }
+        return batch.size();
+    }
+
+    long getCursor() {
+        return cursor;
+    }
+}
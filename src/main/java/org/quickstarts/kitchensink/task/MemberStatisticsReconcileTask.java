@@ -0,0 +1,39 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.MemberStatistics;
+import org.quickstarts.kitchensink.repository.MemberQueryRepository;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.service.SequenceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+
+// Loads member statistics on startup and then corrects them for other instances' writes and any drift.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kitchensink.member-stats.reconcile", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MemberStatisticsReconcileTask {
+    private final MemberRepository memberRepository;
+    private final MemberStatistics memberStatistics;
+    private final SequenceService sequenceService;
+
+    @Scheduled(fixedDelayString = "${kitchensink.member-stats.reconcile.interval:PT5M}")
+    public void reconcile() {
+        memberStatistics.startReconciliation();
+        try {
+            // Taken first: changes at or below the mark have committed, so the aggregation includes them
+            long countedUpTo = sequenceService.committedUpTo(MEMBER_SEQUENCE);
+            MemberQueryRepository.MemberCounts counts = memberRepository.countMembers(memberStatistics.registrationsSince(),
+                    countedUpTo);
+            memberStatistics.reconcile(counts, countedUpTo);
+        } catch (Exception e) {
+            memberStatistics.cancelReconciliation();
+            log.warn("Could not reconcile member statistics: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.service.SequenceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+
+// Picks up writes made by other instances, so their list ETags go stale within one refresh interval.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kitchensink.etag.refresh", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MemberVersionRefreshTask {
+    private final SequenceService sequenceService;
+    private final MemberVersionTracker memberVersionTracker;
+
+    @Scheduled(fixedDelayString = "${kitchensink.etag.refresh.interval:PT1S}")
+    public void refresh() {
+        try {
+            memberVersionTracker.advance(sequenceService.committedUpTo(MEMBER_SEQUENCE));
+        } catch (Exception e) {
+            log.warn("Could not refresh member collection version: {}", e.getMessage());
+        }
+    }
+}
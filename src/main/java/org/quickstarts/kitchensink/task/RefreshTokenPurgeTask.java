@@ -0,0 +1,30 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.repository.RefreshTokenRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+import static org.quickstarts.kitchensink.util.ApplicationConstants.IN_MEMORY_PROFILE;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.LOG_STORE_PROFILE;
+
+// MongoDB expires rotation records with a TTL index; the in-memory store needs this sweep instead.
+@Slf4j
+@Component
+@Profile({IN_MEMORY_PROFILE, LOG_STORE_PROFILE})
+@RequiredArgsConstructor
+public class RefreshTokenPurgeTask {
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Scheduled(fixedDelayString = "PT1M")
+    public void purge() {
+        long purged = refreshTokenRepository.deleteByExpiresAtBefore(new Date());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh token records", purged);
+        }
+    }
+}
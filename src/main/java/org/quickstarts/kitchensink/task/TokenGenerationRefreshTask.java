@@ -0,0 +1,40 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+// Picks up password changes made on other instances, so their revocations apply here within one refresh interval.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "kitchensink.token-generation.refresh", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TokenGenerationRefreshTask {
+    // Re-reads a little of the previous window so a write committed late is not skipped
+    private static final long OVERLAP_MILLIS = 5_000;
+
+    private final UserRepository userRepository;
+    private final TokenGenerationCache tokenGenerationCache;
+
+    private Date since = new Date();
+
+    @Scheduled(fixedDelayString = "${kitchensink.token-generation.refresh.interval:PT5S}")
+    public void refresh() {
+        try {
+            Date now = new Date();
+            for (User user : userRepository.findByUpdatedAtAfter(since)) {
+                tokenGenerationCache.advance(user.getEmail(), user.getTokenGeneration());
+            }
+            since = new Date(now.getTime() - OVERLAP_MILLIS);
+        } catch (Exception e) {
+            log.warn("Could not refresh token generations: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.quickstarts.kitchensink.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quickstarts.kitchensink.cache.VerifiedTokenCache;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Purges expired verified tokens and logs hit rate, evictions and footprint once per report interval.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCacheReportTask {
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private long lastLookups;
+
+    @Scheduled(fixedDelayString = "${kitchensink.verified-token-cache.report-interval:PT1M}")
+    public void report() {
+        verifiedTokenCache.purgeExpired();
+        VerifiedTokenCache.Stats stats = verifiedTokenCache.stats();
+        long lookups = stats.hits() + stats.misses();
+        if (lookups == lastLookups) {
+            return;
+        }
+        lastLookups = lookups;
+        log.info("Verified token cache: {}/{} entries (~{} KB), {} hits, {} misses, {} evictions, {} expirations",
+                stats.size(), stats.maxEntries(), stats.estimatedBytes() / 1024, stats.hits(), stats.misses(),
+                stats.evictions(), stats.expirations());
+    }
+}
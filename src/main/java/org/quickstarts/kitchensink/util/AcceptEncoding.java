@@ -0,0 +1,43 @@
+package org.quickstarts.kitchensink.util;
+
+// Reads an Accept-Encoding header as RFC 9110 defines it: codings are case-insensitive, q=0 refuses one, and * covers
+// every coding not listed by name.
+public class AcceptEncoding {
+
+    public static boolean accepts(String header, String coding) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        Double named = null;
+        Double wildcard = null;
+        for (String element : header.split(",")) {
+            String[] parts = element.split(";");
+            String name = parts[0].trim();
+            double q = quality(parts);
+            if (name.equalsIgnoreCase(coding)) {
+                named = named == null ? q : Math.max(named, q);
+            } else if (name.equals("*")) {
+                wildcard = wildcard == null ? q : Math.max(wildcard, q);
+            }
+        }
+        if (named != null) {
+            return named > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    // A missing or malformed q-value counts as 1, the default weight.
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+}
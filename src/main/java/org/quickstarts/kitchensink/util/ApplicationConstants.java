@@ -3,4 +3,13 @@ package org.quickstarts.kitchensink.util;
 public class ApplicationConstants {
     public static final String PASSWORD_REGEX = "^(?=.*[a-z])(?=.*[A-Z])(?=.*[!@#$%^&*(),.])[A-Za-z\\d!@#$%^&*(),.]{8,}$";
     public static final String EMAIL_REGEX = "^([a-zA-Z0-9._%-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,})$";
+    public static final String EMAIL_DOMAIN_REGEX = "^[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
+    public static final String ID_PATTERN = "^[a-fA-F0-9]{24}$";  // Regex for MongoDB ObjectId (24 hex characters)
+    // Ceiling on ids in one request body, checked before any id is; kitchensink.member-bulk.max-ids applies below it
+    public static final int MAX_IDS_PER_REQUEST = 1000;
+    public static final String MEMBER_SEQUENCE = "member";
+    public static final String IN_MEMORY_PROFILE = "in-memory";
+    public static final String LOG_STORE_PROFILE = "log-store";
+    // Active unless one of the embedded stores replaces MongoDB
+    public static final String MONGO_PROFILE_EXPRESSION = "!" + IN_MEMORY_PROFILE + " & !" + LOG_STORE_PROFILE;
 }
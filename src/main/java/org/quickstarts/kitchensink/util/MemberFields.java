@@ -0,0 +1,30 @@
+package org.quickstarts.kitchensink.util;
+
+import org.quickstarts.kitchensink.exception.IllegalOperationException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Member properties a client may ask for with fields=; JSON names and Member property names are the same.
+public class MemberFields {
+    public static final List<String> ALLOWED = List.of("id", "name", "email", "phoneNumber", "status");
+
+    // Parses a comma-separated field list into allowed fields in canonical order; null means every field.
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!ALLOWED.contains(name)) {
+                throw new IllegalOperationException("Unknown field: " + name + ". Allowed fields: " + String.join(",", ALLOWED));
+            }
+            requested.add(name);
+        }
+        Set<String> canonical = new LinkedHashSet<>();
+        ALLOWED.stream().filter(requested::contains).forEach(canonical::add);
+        return canonical;
+    }
+}
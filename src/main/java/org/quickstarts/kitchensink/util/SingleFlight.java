@@ -0,0 +1,60 @@
+package org.quickstarts.kitchensink.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs at most one load per key at a time. The first caller for a key runs the loader on its own thread; callers that
+ * arrive while it is running wait for it and get its result (passed through {@code share}, so each one can get its
+ * own copy of a mutable value) or its exception. The key is released as soon as the load finishes, so nothing is
+ * cached beyond the flight.
+ */
+public class SingleFlight<K, V> {
+    private final UnaryOperator<V> share;
+
+    private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    public SingleFlight(UnaryOperator<V> share) {
+        this.share = share;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            shared.increment();
+            return share.apply(FutureUtils.join(existing));
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    // Later callers start a new load instead of joining one that began before a write.
+    public void forget(K key) {
+        flights.remove(key);
+    }
+
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    public long getShared() {
+        return shared.sum();
+    }
+}
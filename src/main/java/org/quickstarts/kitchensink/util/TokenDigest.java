@@ -0,0 +1,22 @@
+package org.quickstarts.kitchensink.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// First 128 bits of a token's SHA-256, for keying caches without holding on to the token itself.
+public record TokenDigest(long high, long low) {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    public static TokenDigest of(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(digest.getLong(), digest.getLong());
+    }
+}
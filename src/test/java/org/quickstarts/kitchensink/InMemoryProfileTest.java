@@ -0,0 +1,146 @@
+package org.quickstarts.kitchensink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.AuthRequestDTO;
+import org.quickstarts.kitchensink.pojo.MemberDTO;
+import org.quickstarts.kitchensink.pojo.UserPasswordDTO;
+import org.quickstarts.kitchensink.pojo.UserSignUpDTO;
+import org.quickstarts.kitchensink.repository.InMemoryMemberRepository;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.service.MemberService;
+import org.quickstarts.kitchensink.service.SequenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.IN_MEMORY_PROFILE;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(IN_MEMORY_PROFILE)
+class InMemoryProfileTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Test
+    void registerAuthenticateAndCreateMember() throws Exception {
+        assertThat(memberRepository).isInstanceOf(InMemoryMemberRepository.class);
+
+        mockMvc.perform(post("/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserSignUpDTO("admin@example.com", "Passw0rd!"))))
+                .andExpect(status().isCreated());
+
+        String tokenResponse = mockMvc.perform(post("/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequestDTO("admin@example.com", "Passw0rd!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode tokens = objectMapper.readTree(tokenResponse);
+        String authorization = "Bearer " + tokens.get("access_token").asText();
+
+        mockMvc.perform(post("/api/v1/members")
+                        .header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MemberDTO("John Doe", "john@example.com", "9876543210"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/members").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].email").value("john@example.com"));
+
+        String refresh = objectMapper.createObjectNode()
+                .put("refresh_token", tokens.get("refresh_token").asText()).toString();
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON).content(refresh))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access_token").isNotEmpty());
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON).content(refresh))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void passwordChangeRevokesIssuedTokens() throws Exception {
+        mockMvc.perform(post("/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserSignUpDTO("rotate@example.com", "Passw0rd!"))))
+                .andExpect(status().isCreated());
+        String tokenResponse = mockMvc.perform(post("/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequestDTO("rotate@example.com", "Passw0rd!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String authorization = "Bearer " + objectMapper.readTree(tokenResponse).get("access_token").asText();
+        mockMvc.perform(get("/api/v1/members").header("Authorization", authorization))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/users/update-password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UserPasswordDTO("rotate@example.com", "Passw0rd!", "Passw0rd!2", "Passw0rd!2"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/members").header("Authorization", authorization))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void deltaSyncWaitsForWritersThatLandOutOfOrder() throws Exception {
+        mockMvc.perform(post("/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserSignUpDTO("sync@example.com", "Passw0rd!"))))
+                .andExpect(status().isCreated());
+        String tokenResponse = mockMvc.perform(post("/auth/token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequestDTO("sync@example.com", "Passw0rd!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String authorization = "Bearer " + objectMapper.readTree(tokenResponse).get("access_token").asText();
+        String since = String.valueOf(memberService.getCommittedChangeSeq());
+
+        // Writer A takes its sequence first but writes last; writer B takes the next one and lands in between
+        Member slow = new Member("Slow Writer", "slow@example.com", "1234567890");
+        slow.setChangeSeq(sequenceService.next(MEMBER_SEQUENCE));
+        memberService.save(null, new Member("Fast Writer", "fast@example.com", "1234567891"));
+
+        String firstSync = mockMvc.perform(get("/api/v1/members/changes").param("since", since)
+                        .header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.members").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String nextToken = objectMapper.readTree(firstSync).get("data").get("nextToken").asText();
+        assertThat(Long.parseLong(nextToken)).isLessThan(slow.getChangeSeq());
+
+        memberRepository.save(slow);
+        sequenceService.release(MEMBER_SEQUENCE, slow.getChangeSeq());
+
+        mockMvc.perform(get("/api/v1/members/changes").param("since", nextToken)
+                        .header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.members[0].email").value("slow@example.com"))
+                .andExpect(jsonPath("$.data.members[1].email").value("fast@example.com"));
+    }
+}
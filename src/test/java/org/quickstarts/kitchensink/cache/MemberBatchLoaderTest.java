@@ -0,0 +1,120 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.MemberBatchProperties;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberBatchLoaderTest {
+
+    private MemberRepository memberRepository;
+    private MemberBatchProperties memberBatchProperties;
+    private MemberBatchLoader memberBatchLoader;
+
+    @BeforeEach
+    void setUp() {
+        memberRepository = mock(MemberRepository.class);
+        memberBatchProperties = new MemberBatchProperties();
+        memberBatchProperties.setEnabled(true);
+        memberBatchProperties.setWindow(Duration.ofMillis(200));
+        memberBatchLoader = new MemberBatchLoader(memberRepository, memberBatchProperties);
+        when(memberRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<Member> found = new ArrayList<>();
+            for (String id : invocation.<Iterable<String>>getArgument(0)) {
+                if (!id.startsWith("missing")) {
+                    found.add(member(id));
+                }
+            }
+            return found;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberBatchLoader.close();
+    }
+
+    @Test
+    void testLoad_lookupsWithinWindowShareOneQuery() throws Exception {
+        // Act
+        List<Optional<Member>> results = loadConcurrently("1", "2", "2", "missing");
+
+        // Assert
+        verify(memberRepository, times(1)).findAllById(any());
+        assertThat(results.get(0)).get().extracting(Member::getId).isEqualTo("1");
+        assertThat(results.get(1)).get().extracting(Member::getId).isEqualTo("2");
+        assertThat(results.get(1).get()).isNotSameAs(results.get(2).get());
+        assertThat(results.get(3)).isEmpty();
+        assertThat(memberBatchLoader.getLoads()).isEqualTo(4);
+        assertThat(memberBatchLoader.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void testLoad_fullBatchIsSentBeforeWindow() throws Exception {
+        // Arrange
+        memberBatchProperties.setWindow(Duration.ofSeconds(30));
+        memberBatchProperties.setMaxBatchSize(2);
+
+        // Act
+        List<Optional<Member>> results = loadConcurrently("1", "2");
+
+        // Assert
+        assertThat(results).allSatisfy(result -> assertThat(result).isPresent());
+        verify(memberRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void testLoad_queryFailure_propagatesToCallers() {
+        // Arrange
+        doThrow(new IllegalStateException("down")).when(memberRepository).findAllById(any());
+
+        // Act & Assert
+        assertThatThrownBy(() -> memberBatchLoader.load("1")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private List<Optional<Member>> loadConcurrently(String... ids) throws InterruptedException, ExecutionException {
+        List<Optional<Member>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Optional<Member>>> futures = new ArrayList<>();
+            for (String id : ids) {
+                futures.add(executor.submit(() -> memberBatchLoader.load(id)));
+            }
+            for (Future<Optional<Member>> future : futures) {
+                try {
+                    results.add(future.get(5, TimeUnit.SECONDS));
+                } catch (TimeoutException e) {
+                    throw new AssertionError("Batch was not sent", e);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static Member member(String id) {
+        Member member = new Member("Alice", id + "@example.com", "1234567890");
+        member.setId(id);
+        return member;
+    }
+}
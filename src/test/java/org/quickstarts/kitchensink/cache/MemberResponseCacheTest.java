@@ -0,0 +1,139 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.ResponseCacheProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberResponseCacheTest {
+    private static final byte[] JSON = "{\"status\":200}".getBytes(StandardCharsets.UTF_8);
+
+    private ResponseCacheProperties responseCacheProperties;
+    private MemberResponseCache memberResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        responseCacheProperties = new ResponseCacheProperties();
+        memberResponseCache = new MemberResponseCache(responseCacheProperties);
+    }
+
+    @Test
+    void testPutAndGet() {
+        // Act
+        memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+
+        // Assert
+        MemberResponseCache.CachedResponse cachedResponse = memberResponseCache.get("1");
+        assertThat(cachedResponse).isNotNull();
+        assertThat(cachedResponse.json()).isEqualTo(JSON);
+        assertThat(cachedResponse.eTag()).isEqualTo("\"1-0\"");
+        assertThat(cachedResponse.gzip()).isNull();
+    }
+
+    @Test
+    void testPut_skippedWhenInvalidatedDuringLoad() {
+        // Arrange
+        long stamp = memberResponseCache.stamp();
+        memberResponseCache.invalidate("1");
+
+        // Act
+        MemberResponseCache.CachedResponse cachedResponse = memberResponseCache.put("1", "\"1-0\"", JSON, stamp);
+
+        // Assert
+        assertThat(cachedResponse.json()).isEqualTo(JSON);
+        assertThat(memberResponseCache.get("1")).isNull();
+    }
+
+    @Test
+    void testInvalidate() {
+        // Arrange
+        memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+
+        // Act
+        memberResponseCache.invalidate("1");
+
+        // Assert
+        assertThat(memberResponseCache.get("1")).isNull();
+    }
+
+    @Test
+    void testGet_expiredEntry() {
+        // Arrange
+        responseCacheProperties.setTtl(Duration.ofMillis(-1));
+        memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+
+        // Act & Assert
+        assertThat(memberResponseCache.get("1")).isNull();
+        assertThat(memberResponseCache.size()).isZero();
+    }
+
+    @Test
+    void testPut_boundedByMaxEntries() {
+        // Arrange
+        responseCacheProperties.setMaxEntries(2);
+
+        // Act
+        memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+        memberResponseCache.put("2", "\"2-0\"", JSON, memberResponseCache.stamp());
+        memberResponseCache.put("3", "\"3-0\"", JSON, memberResponseCache.stamp());
+
+        // Assert
+        assertThat(memberResponseCache.size()).isEqualTo(2);
+        assertThat(memberResponseCache.get("3")).isNotNull();
+    }
+
+    @Test
+    void testPut_storesGzipVariant() throws IOException {
+        // Arrange
+        responseCacheProperties.setGzip(true);
+
+        // Act
+        MemberResponseCache.CachedResponse cachedResponse = memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+
+        // Assert
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(cachedResponse.gzip()))) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(JSON);
+        }
+    }
+
+    @Test
+    void testPut_disabledSkipsGzip() {
+        // Arrange
+        responseCacheProperties.setEnabled(false);
+        responseCacheProperties.setGzip(true);
+
+        // Act
+        MemberResponseCache.CachedResponse cachedResponse = memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+
+        // Assert
+        assertThat(cachedResponse.json()).isEqualTo(JSON);
+        assertThat(cachedResponse.gzip()).isNull();
+        assertThat(memberResponseCache.size()).isZero();
+    }
+
+    @Test
+    void testOnMemberChange_dropsEntryChangedByAnotherInstance() {
+        // Arrange
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        member.setId("1");
+        member.setDeleted(true);
+        member.setChangeType(MemberChangeType.DELETED);
+        memberResponseCache.put("1", "\"1-0\"", JSON, memberResponseCache.stamp());
+
+        // Act
+        memberResponseCache.onMemberChange(MemberChangeEvent.of(member));
+
+        // Assert
+        assertThat(memberResponseCache.get("1")).isNull();
+    }
+}
@@ -0,0 +1,169 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.MemberSearchProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemberSearchIndexTest {
+
+    private MemberRepository memberRepository;
+    private MemberSearchIndex memberSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        memberRepository = mock(MemberRepository.class);
+        MemberSearchProperties memberSearchProperties = new MemberSearchProperties();
+        memberSearchProperties.setBuildBatchSize(2);
+        memberSearchIndex = new MemberSearchIndex(memberRepository, memberSearchProperties);
+    }
+
+    @Test
+    void testBuild_pagesThroughMembersInChangeOrder() {
+        // Arrange
+        when(memberRepository.findByChangeSeqGreaterThan(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(member("1", "John Smith", "john@example.com", "9876543210", 1),
+                        member("2", "Jane Doe", "jane@example.com", "9876543211", 2)));
+        when(memberRepository.findByChangeSeqGreaterThan(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(member("3", "Johanna Blake", "jo@example.org", "5550001111", 3)));
+
+        // Act
+        memberSearchIndex.build();
+
+        // Assert
+        assertThat(memberSearchIndex.isReady()).isTrue();
+        assertThat(memberSearchIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testBuild_failureLeavesIndexNotReady() {
+        // Arrange
+        when(memberRepository.findByChangeSeqGreaterThan(anyLong(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("down"));
+
+        // Act
+        memberSearchIndex.build();
+
+        // Assert
+        assertThat(memberSearchIndex.isReady()).isFalse();
+    }
+
+    @Test
+    void testSearch_matchesPrefixesOfNamesEmailsAndPhones() {
+        // Arrange
+        memberSearchIndex.apply(member("1", "John Smith", "john.smith@example.com", "9876543210", 1));
+        memberSearchIndex.apply(member("2", "Jane Doe", "jane@acme.io", "555-000-1111", 2));
+
+        // Act & Assert
+        assertThat(ids(memberSearchIndex.search("smi", 10))).containsExactly("1");
+        assertThat(ids(memberSearchIndex.search("acme", 10))).containsExactly("2");
+        assertThat(ids(memberSearchIndex.search("555000", 10))).containsExactly("2");
+        assertThat(ids(memberSearchIndex.search("ja do", 10))).containsExactly("2");
+        assertThat(memberSearchIndex.search("jo do", 10)).isEmpty();
+        assertThat(memberSearchIndex.search("   ", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearch_ranksExactOverPrefixAndNamesOverEmails() {
+        // Arrange
+        memberSearchIndex.apply(member("1", "Johnson Baker", "jb@example.com", "1111111111", 1));
+        memberSearchIndex.apply(member("2", "Ann Lee", "johnny@example.com", "2222222222", 2));
+        memberSearchIndex.apply(member("3", "John Carter", "carter@example.com", "3333333333", 3));
+
+        // Act
+        List<Member> result = memberSearchIndex.search("John", 10);
+
+        // Assert
+        assertThat(ids(result)).containsExactly("3", "1", "2");
+    }
+
+    @Test
+    void testSearch_toleratesOneTypo() {
+        // Arrange
+        memberSearchIndex.apply(member("1", "Katherine Smith", "kat@example.com", "1111111111", 1));
+
+        // Act & Assert
+        assertThat(ids(memberSearchIndex.search("kathrine", 10))).containsExactly("1");
+        assertThat(ids(memberSearchIndex.search("katherjne", 10))).containsExactly("1");
+        assertThat(memberSearchIndex.search("kthrne", 10)).isEmpty();
+    }
+
+    @Test
+    void testSearch_respectsLimit() {
+        // Arrange
+        memberSearchIndex.apply(member("1", "Sam One", "one@example.com", "1111111111", 1));
+        memberSearchIndex.apply(member("2", "Sam Two", "two@example.com", "2222222222", 2));
+        memberSearchIndex.apply(member("3", "Sam Three", "three@example.com", "3333333333", 3));
+
+        // Act
+        List<Member> result = memberSearchIndex.search("sam", 2);
+
+        // Assert
+        assertThat(ids(result)).containsExactly("1", "3");
+    }
+
+    @Test
+    void testOnMemberChange_reindexesAndHidesInvisibleMembers() {
+        // Arrange
+        Member member = member("1", "John Smith", "john@example.com", "9876543210", 1);
+        memberSearchIndex.apply(member);
+        member.setName("Jack Smith");
+        member.setEmail("jack@example.com");
+        member.setChangeSeq(2);
+
+        // Act
+        memberSearchIndex.onMemberChange(MemberChangeEvent.of(MemberChangeType.UPDATED, member));
+
+        // Assert
+        assertThat(memberSearchIndex.search("john", 10)).isEmpty();
+        assertThat(memberSearchIndex.search("jack", 10)).extracting(Member::getName).containsExactly("Jack Smith");
+
+        // Act
+        member.setStatus(MemberStatus.INACTIVE);
+        member.setChangeSeq(3);
+        memberSearchIndex.onMemberChange(MemberChangeEvent.of(MemberChangeType.UPDATED, member));
+
+        // Assert
+        assertThat(memberSearchIndex.search("jack", 10)).isEmpty();
+        assertThat(memberSearchIndex.size()).isZero();
+    }
+
+    @Test
+    void testApply_ignoresStaleChanges() {
+        // Arrange
+        Member deleted = member("1", "John Smith", "john@example.com", "9876543210", 5);
+        deleted.setDeleted(true);
+        memberSearchIndex.apply(deleted);
+
+        // Act
+        memberSearchIndex.apply(member("1", "John Smith", "john@example.com", "9876543210", 4));
+
+        // Assert
+        assertThat(memberSearchIndex.search("john", 10)).isEmpty();
+    }
+
+    private static Member member(String id, String name, String email, String phoneNumber, long changeSeq) {
+        Member member = new Member(name, email, phoneNumber);
+        member.setId(id);
+        member.setChangeSeq(changeSeq);
+        return member;
+    }
+
+    private static List<String> ids(List<Member> members) {
+        return members.stream().map(Member::getId).toList();
+    }
+}
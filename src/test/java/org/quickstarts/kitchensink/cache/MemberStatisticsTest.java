@@ -0,0 +1,140 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.MemberStatsProperties;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.MemberStatsDTO;
+import org.quickstarts.kitchensink.repository.MemberQueryRepository.MemberCounts;
+import org.quickstarts.kitchensink.repository.MemberQueryRepository.StateCount;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberStatisticsTest {
+
+    private MemberStatistics memberStatistics;
+
+    @BeforeEach
+    void setUp() {
+        memberStatistics = new MemberStatistics(new MemberStatsProperties());
+    }
+
+    @Test
+    void testRecordAfterCommit_countsRegistrationsAndTransitions() {
+        // Arrange
+        Member member = member(MemberStatus.ACTIVE, false);
+        Member inactive = member.copy();
+        inactive.setStatus(MemberStatus.INACTIVE);
+        Member deleted = inactive.copy();
+        deleted.setDeleted(true);
+
+        // Act
+        memberStatistics.recordAfterCommit(null, member);
+        memberStatistics.recordAfterCommit(member, inactive);
+        memberStatistics.recordAfterCommit(inactive, deleted);
+
+        // Assert
+        MemberStatsDTO stats = memberStatistics.getStats();
+        assertThat(stats.getByStatus()).containsEntry(MemberStatus.ACTIVE, 0L).containsEntry(MemberStatus.INACTIVE, 0L);
+        assertThat(stats.getDeleted()).isEqualTo(1);
+        assertThat(stats.getRegistrationsPerDay()).containsExactly(Map.entry(today(), 1L));
+        assertThat(stats.getReconciledAt()).isNull();
+        assertThat(stats.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void testRecordAfterCommit_capturesStateWhenRecorded() {
+        // Arrange
+        Member member = member(MemberStatus.ACTIVE, false);
+
+        // Act
+        memberStatistics.recordAfterCommit(null, member);
+        member.setStatus(MemberStatus.INACTIVE);
+
+        // Assert
+        assertThat(memberStatistics.getStats().getByStatus()).containsEntry(MemberStatus.ACTIVE, 1L);
+    }
+
+    @Test
+    void testReconcile_replacesCountsAndKeepsChangesMadeMeanwhile() {
+        // Arrange
+        memberStatistics.recordAfterCommit(null, member(MemberStatus.ACTIVE, false));
+        memberStatistics.startReconciliation();
+        Member missed = member(MemberStatus.INACTIVE, false);
+        missed.setChangeSeq(12);
+        memberStatistics.recordAfterCommit(null, missed);
+
+        // Act
+        memberStatistics.reconcile(new MemberCounts(List.of(new StateCount(MemberStatus.ACTIVE, false, 10),
+                        new StateCount(MemberStatus.INACTIVE, false, 3),
+                        new StateCount(MemberStatus.ACTIVE, true, 2),
+                        new StateCount(MemberStatus.INACTIVE, true, 1)),
+                Map.of(today().minusDays(1), 4L, today().minusDays(45), 9L), Map.of()), 10);
+
+        // Assert
+        MemberStatsDTO stats = memberStatistics.getStats();
+        assertThat(stats.getByStatus()).containsEntry(MemberStatus.ACTIVE, 10L).containsEntry(MemberStatus.INACTIVE, 4L);
+        assertThat(stats.getDeleted()).isEqualTo(3);
+        assertThat(stats.getRegistrationsPerDay())
+                .containsExactly(Map.entry(today().minusDays(1), 4L), Map.entry(today(), 1L));
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void testReconcile_skipsChangesTheAggregationAlreadyCounted() {
+        // Arrange
+        memberStatistics.startReconciliation();
+        Member committedBefore = member(MemberStatus.ACTIVE, false);
+        committedBefore.setChangeSeq(9);
+        memberStatistics.recordAfterCommit(null, committedBefore);
+        Member counted = member(MemberStatus.ACTIVE, false);
+        counted.setChangeSeq(12);
+        memberStatistics.recordAfterCommit(null, counted);
+        Member inactive = counted.copy();
+        inactive.setStatus(MemberStatus.INACTIVE);
+        inactive.setChangeSeq(13);
+        memberStatistics.recordAfterCommit(counted, inactive);
+
+        // Act
+        memberStatistics.reconcile(new MemberCounts(List.of(new StateCount(MemberStatus.ACTIVE, false, 2)),
+                Map.of(today(), 2L), Map.of(counted.getId(), 12L)), 10);
+
+        // Assert
+        MemberStatsDTO stats = memberStatistics.getStats();
+        assertThat(stats.getByStatus()).containsEntry(MemberStatus.ACTIVE, 1L).containsEntry(MemberStatus.INACTIVE, 1L);
+        assertThat(stats.getRegistrationsPerDay()).containsExactly(Map.entry(today(), 2L));
+    }
+
+    @Test
+    void testCancelReconciliation_stopsKeepingChanges() {
+        // Arrange
+        memberStatistics.startReconciliation();
+        memberStatistics.recordAfterCommit(null, member(MemberStatus.ACTIVE, false));
+
+        // Act
+        memberStatistics.cancelReconciliation();
+        memberStatistics.reconcile(new MemberCounts(List.of(new StateCount(MemberStatus.ACTIVE, false, 5)), Map.of(), Map.of()), 0);
+
+        // Assert
+        assertThat(memberStatistics.getStats().getByStatus()).containsEntry(MemberStatus.ACTIVE, 5L);
+    }
+
+    private static Member member(MemberStatus status, boolean deleted) {
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId(new ObjectId().toHexString());
+        member.setStatus(status);
+        member.setDeleted(deleted);
+        return member;
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,51 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.service.InMemorySequenceServiceImpl;
+import org.quickstarts.kitchensink.service.SequenceService;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MEMBER_SEQUENCE;
+
+class MemberVersionTrackerTest {
+    private MemberVersionTracker memberVersionTracker;
+
+    @BeforeEach
+    void setUp() {
+        memberVersionTracker = new MemberVersionTracker();
+    }
+
+    @Test
+    void testAdvance_keepsHighestVersion() {
+        assertThat(memberVersionTracker.getVersion()).isEqualTo(MemberVersionTracker.UNKNOWN);
+
+        memberVersionTracker.advance(5);
+        memberVersionTracker.advance(3);
+
+        assertThat(memberVersionTracker.getVersion()).isEqualTo(5);
+    }
+
+    @Test
+    void testAdvance_movesOnceEarlierWriteLandsBehindLaterOne() {
+        // Arrange
+        MemberRepository memberRepository = mock(MemberRepository.class);
+        when(memberRepository.findFirstByOrderByChangeSeqDesc()).thenReturn(Optional.empty());
+        SequenceService sequenceService = new InMemorySequenceServiceImpl(memberRepository);
+        long first = sequenceService.next(MEMBER_SEQUENCE);
+        long second = sequenceService.next(MEMBER_SEQUENCE);
+
+        // Act & Assert
+        memberVersionTracker.advance(sequenceService.release(MEMBER_SEQUENCE, second));
+        long versionWhileFirstInFlight = memberVersionTracker.getVersion();
+        assertThat(versionWhileFirstInFlight).isLessThan(first);
+
+        memberVersionTracker.advance(sequenceService.release(MEMBER_SEQUENCE, first));
+        assertThat(memberVersionTracker.getVersion()).isEqualTo(second).isNotEqualTo(versionWhileFirstInFlight);
+    }
+}
@@ -0,0 +1,69 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.RejectedTokenCacheProperties;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RejectedTokenCacheTest {
+
+    private RejectedTokenCacheProperties rejectedTokenCacheProperties;
+    private RejectedTokenCache rejectedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        rejectedTokenCacheProperties = new RejectedTokenCacheProperties();
+        rejectedTokenCache = new RejectedTokenCache(rejectedTokenCacheProperties);
+    }
+
+    @Test
+    void testAddAndContains() {
+        // Act
+        rejectedTokenCache.add("a.b.c");
+
+        // Assert
+        assertThat(rejectedTokenCache.contains("a.b.c")).isTrue();
+        assertThat(rejectedTokenCache.contains("a.b.d")).isFalse();
+    }
+
+    @Test
+    void testContains_expiredEntry() {
+        // Arrange
+        rejectedTokenCacheProperties.setTtl(Duration.ofMillis(-1));
+        rejectedTokenCache.add("a.b.c");
+
+        // Act & Assert
+        assertThat(rejectedTokenCache.contains("a.b.c")).isFalse();
+        assertThat(rejectedTokenCache.size()).isZero();
+    }
+
+    @Test
+    void testAdd_boundedByMaxEntries() {
+        // Arrange
+        rejectedTokenCacheProperties.setMaxEntries(2);
+
+        // Act
+        rejectedTokenCache.add("a.b.c");
+        rejectedTokenCache.add("a.b.d");
+        rejectedTokenCache.add("a.b.e");
+
+        // Assert
+        assertThat(rejectedTokenCache.size()).isEqualTo(2);
+        assertThat(rejectedTokenCache.contains("a.b.e")).isTrue();
+    }
+
+    @Test
+    void testDisabled() {
+        // Arrange
+        rejectedTokenCacheProperties.setEnabled(false);
+
+        // Act
+        rejectedTokenCache.add("a.b.c");
+
+        // Assert
+        assertThat(rejectedTokenCache.contains("a.b.c")).isFalse();
+    }
+}
@@ -0,0 +1,76 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenGenerationCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenGenerationCache tokenGenerationCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenGenerationCache = new TokenGenerationCache(userRepository);
+    }
+
+    @Test
+    void testIsCurrent_loadsOnceThenReadsMap() {
+        // Arrange
+        User user = new User("test@example.com", "secret");
+        user.setTokenGeneration(2);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(user);
+
+        // Act & Assert
+        assertThat(tokenGenerationCache.isCurrent("test@example.com", 2)).isTrue();
+        assertThat(tokenGenerationCache.isCurrent("test@example.com", 1)).isFalse();
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+    }
+
+    @Test
+    void testAdvance_revokesOlderGenerations() {
+        // Arrange
+        tokenGenerationCache.advance("test@example.com", 0);
+
+        // Act
+        tokenGenerationCache.advance("test@example.com", 1);
+
+        // Assert
+        assertThat(tokenGenerationCache.isCurrent("test@example.com", 0)).isFalse();
+        assertThat(tokenGenerationCache.isCurrent("test@example.com", 1)).isTrue();
+    }
+
+    @Test
+    void testAdvance_neverMovesBackwards() {
+        // Act
+        tokenGenerationCache.advance("test@example.com", 3);
+        tokenGenerationCache.advance("test@example.com", 1);
+
+        // Assert
+        assertThat(tokenGenerationCache.current("test@example.com")).isEqualTo(3);
+    }
+
+    @Test
+    void testIsCurrent_newerGenerationFromAnotherInstanceAdvances() {
+        // Arrange
+        tokenGenerationCache.advance("test@example.com", 0);
+
+        // Act
+        boolean current = tokenGenerationCache.isCurrent("test@example.com", 1);
+
+        // Assert
+        assertThat(current).isTrue();
+        assertThat(tokenGenerationCache.isCurrent("test@example.com", 0)).isFalse();
+    }
+}
@@ -0,0 +1,114 @@
+package org.quickstarts.kitchensink.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.VerifiedTokenCacheProperties;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.quickstarts.kitchensink.util.TokenDigest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCacheProperties verifiedTokenCacheProperties;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCacheProperties = new VerifiedTokenCacheProperties();
+        verifiedTokenCache = new VerifiedTokenCache(verifiedTokenCacheProperties);
+    }
+
+    @Test
+    void testPutAndGet() {
+        // Arrange
+        VerifiedToken verified = token(3600);
+
+        // Act
+        verifiedTokenCache.put("a.b.c", verified);
+
+        // Assert
+        assertThat(verifiedTokenCache.get("a.b.c")).isEqualTo(verified);
+        assertThat(verifiedTokenCache.get("a.b.d")).isNull();
+        assertThat(verifiedTokenCache.stats().hits()).isEqualTo(1);
+        assertThat(verifiedTokenCache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void testGet_expiresAtTokenExp() {
+        // Arrange
+        verifiedTokenCache.put("a.b.c", token(-1));
+
+        // Act & Assert
+        assertThat(verifiedTokenCache.get("a.b.c")).isNull();
+        assertThat(verifiedTokenCache.size()).isZero();
+        assertThat(verifiedTokenCache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void testPut_evictsLeastRecentlyUsed() {
+        // Arrange: one entry per segment
+        verifiedTokenCacheProperties.setMaxEntries(16);
+        String[] tokens = tokensInOneSegment(3);
+        verifiedTokenCache.put(tokens[0], token(3600));
+        verifiedTokenCache.put(tokens[1], token(3600));
+
+        // Act
+        verifiedTokenCache.put(tokens[2], token(3600));
+
+        // Assert
+        assertThat(verifiedTokenCache.get(tokens[0])).isNull();
+        assertThat(verifiedTokenCache.get(tokens[1])).isNull();
+        assertThat(verifiedTokenCache.get(tokens[2])).isNotNull();
+        assertThat(verifiedTokenCache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void testPurgeExpired() {
+        // Arrange
+        verifiedTokenCache.put("a.b.c", token(-1));
+        verifiedTokenCache.put("a.b.d", token(3600));
+
+        // Act
+        int purged = verifiedTokenCache.purgeExpired();
+
+        // Assert
+        assertThat(purged).isEqualTo(1);
+        assertThat(verifiedTokenCache.size()).isEqualTo(1);
+        assertThat(verifiedTokenCache.stats().estimatedBytes()).isPositive();
+    }
+
+    @Test
+    void testDisabled() {
+        // Arrange
+        verifiedTokenCacheProperties.setEnabled(false);
+
+        // Act
+        verifiedTokenCache.put("a.b.c", token(3600));
+
+        // Assert
+        assertThat(verifiedTokenCache.get("a.b.c")).isNull();
+    }
+
+    private static VerifiedToken token(long expiresInSeconds) {
+        long now = System.currentTimeMillis() / 1000;
+        return new VerifiedToken("user@example.com", false, now, now + expiresInSeconds, null, 0);
+    }
+
+    private static String[] tokensInOneSegment(int count) {
+        String[] tokens = new String[count];
+        long segment = -1;
+        int found = 0;
+        for (int i = 0; found < count; i++) {
+            String token = "a.b." + i;
+            long candidate = TokenDigest.of(token).low() & 15;
+            if (segment < 0) {
+                segment = candidate;
+            }
+            if (candidate == segment) {
+                tokens[found++] = token;
+            }
+        }
+        return tokens;
+    }
+}
@@ -5,9 +5,12 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
 import org.quickstarts.kitchensink.pojo.ApiError;
+import org.quickstarts.kitchensink.pojo.AuthResponseDTO;
 import org.quickstarts.kitchensink.pojo.FieldError;
 import org.quickstarts.kitchensink.service.JwtTokenService;
+import org.quickstarts.kitchensink.service.RefreshTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -25,6 +28,7 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -47,6 +51,9 @@ public class AuthControllerTest {
     @MockitoBean
     private JwtTokenService jwtTokenService;
 
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
     @BeforeAll
     static void beforeAll() {
         objectMapper = new ObjectMapper();
@@ -96,6 +103,46 @@ public class AuthControllerTest {
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
+    @Test
+    void testRefreshSuccess() throws Exception {
+        // Arrange
+        when(refreshTokenService.refresh("refresh_token")).thenReturn(new AuthResponseDTO("new_access", "new_refresh"));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refresh_token\":\"refresh_token\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access_token").value("new_access"))
+                .andExpect(jsonPath("$.refresh_token").value("new_refresh"));
+
+        verify(authenticationManager, never()).authenticate(any(UsernamePasswordAuthenticationToken.class));
+    }
+
+    @Test
+    void testRefreshFailure() throws Exception {
+        // Arrange
+        when(refreshTokenService.refresh("refresh_token")).thenThrow(new InvalidTokenException("Refresh token reused"));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refresh_token\":\"refresh_token\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Invalid refresh token"));
+    }
+
+    @Test
+    void testRefreshMissingToken() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(refreshTokenService, never()).refresh(any());
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"john32432", "john32432@cac", "john32432@cac."})
     void testAuthToken_invalidUsername(String username) throws Exception {
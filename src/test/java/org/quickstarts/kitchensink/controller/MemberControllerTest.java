@@ -3,41 +3,61 @@ package org.quickstarts.kitchensink.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.quickstarts.kitchensink.cache.MemberResponseCache;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.config.ResponseCacheProperties;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
 import org.quickstarts.kitchensink.enums.MemberStatus;
 import org.quickstarts.kitchensink.model.Member;
 import org.quickstarts.kitchensink.pojo.ApiError;
 import org.quickstarts.kitchensink.pojo.ApiResponse;
 import org.quickstarts.kitchensink.pojo.FieldError;
+import org.quickstarts.kitchensink.pojo.MemberBulkResultDTO;
+import org.quickstarts.kitchensink.pojo.MemberStatsDTO;
 import org.quickstarts.kitchensink.service.MemberRegistrationService;
 import org.quickstarts.kitchensink.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -54,11 +74,26 @@ class MemberControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MemberVersionTracker memberVersionTracker;
+
+    @Autowired
+    private MemberResponseCache memberResponseCache;
+
+    @Autowired
+    private ResponseCacheProperties responseCacheProperties;
+
     @BeforeAll
     static void beforeAll() {
         objectMapper = new ObjectMapper();
     }
 
+    @BeforeEach
+    void setUp() {
+        memberResponseCache.clear();
+        responseCacheProperties.setGzip(false);
+    }
+
     @Test
     @WithMockUser
     void testCreateMember_successfullyCreateMember() throws Exception {
@@ -214,7 +249,7 @@ class MemberControllerTest {
         // Arrange
         Member mockMember = mock(Member.class);
         Member mockMember1 = mock(Member.class);
-        when(memberService.findAllOrderedByName()).thenReturn(List.of(mockMember, mockMember1));
+        when(memberService.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null)).thenReturn(List.of(mockMember, mockMember1));
         when(mockMember.isDeleted()).thenReturn(false);
         when(mockMember1.isDeleted()).thenReturn(true);
 
@@ -224,7 +259,7 @@ class MemberControllerTest {
                 .andExpect(status().isOk())
                 .andReturn();
 
-        verify(memberService).findAllOrderedByName();
+        verify(memberService).findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
         ApiResponse<List<Member>> apiResponse = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), new TypeReference<>() {});
         assertThat(apiResponse.getStatus()).isEqualTo(200);
         assertThat(apiResponse.getData()).isNotNull();
@@ -506,7 +541,7 @@ class MemberControllerTest {
         when(memberService.findById(eq(memberId))).thenReturn(Optional.of(mockMember));
         when(mockMember.isDeleted()).thenReturn(false);
         doNothing().when(mockMember).setStatus(any(MemberStatus.class));
-        doNothing().when(memberService).save(mockMember);
+        doNothing().when(memberService).save(any(), eq(mockMember));
 
         // Act & Assert
         MvcResult mvcResult = mockMvc.perform(patch("/api/v1/members/status/{id}?status=ACTIVE", memberId))
@@ -520,4 +555,442 @@ class MemberControllerTest {
         assertThat(apiResponse.getMessage()).isEqualTo("Member with id: 6778007913f34819876ffff5 successfully marked ACTIVE");
         assertThat(apiResponse.getData()).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void getMemberStats_returnsCounts() throws Exception {
+        // Arrange
+        MemberStatsDTO stats = new MemberStatsDTO(Map.of(MemberStatus.ACTIVE, 7L, MemberStatus.INACTIVE, 2L), 3,
+                Map.of(LocalDate.of(2026, 10, 19), 4L), Instant.parse("2026-10-19T10:00:00Z"),
+                Instant.parse("2026-10-19T10:05:00Z"));
+        when(memberService.getStats()).thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.byStatus.ACTIVE").value(7))
+                .andExpect(jsonPath("$.data.byStatus.INACTIVE").value(2))
+                .andExpect(jsonPath("$.data.deleted").value(3))
+                .andExpect(jsonPath("$.data.registrationsPerDay['2026-10-19']").value(4))
+                .andExpect(jsonPath("$.data.reconciledAt").value("2026-10-19T10:00:00Z"))
+                .andExpect(jsonPath("$.data.updatedAt").value("2026-10-19T10:05:00Z"));
+    }
+
+    @Test
+    @WithMockUser
+    void searchMembers_returnsMatches() throws Exception {
+        // Arrange
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId("6778007913f34819876ffff5");
+        when(memberService.search("jo", 5)).thenReturn(List.of(member));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/search").param("q", "jo").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].email").value("john@example.com"));
+    }
+
+    @ParameterizedTest
+    @WithMockUser
+    @CsvSource({
+            "j, 20, Search query must be 2 to 100 characters",
+            "'   ', 20, Search query must not be blank",
+            "jo, 0, Limit must be between 1 and 50",
+            "jo, 51, Limit must be between 1 and 50"
+    })
+    void searchMembers_invalidParameters(String q, String limit, String message) throws Exception {
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/members/search").param("q", q).param("limit", limit))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).search(any(), anyInt());
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getDetails()).hasSize(1);
+        assertThat(apiError.getDetails().getFirst().getMessage()).isEqualTo(message);
+    }
+
+    @Test
+    @WithMockUser
+    void batchGetMembers_returnsFoundAndMissing() throws Exception {
+        // Arrange
+        Member active = new Member("John Doe", "john@example.com", "9876543210");
+        active.setId("6778007913f34819876ffff5");
+        Member inactive = new Member("Jane Doe", "jane@example.com", "9876543211");
+        inactive.setId("6778007913f34819876ffff6");
+        inactive.setStatus(MemberStatus.INACTIVE);
+        when(memberService.findAllById(any())).thenReturn(List.of(inactive, active));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/members/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"6778007913f34819876ffff6\",\"6778007913f34819876ffff5\","
+                                + "\"6778007913f34819876ffff7\",\"6778007913f34819876ffff5\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.members.length()").value(1))
+                .andExpect(jsonPath("$.data.members[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.data.missingIds.length()").value(2))
+                .andExpect(jsonPath("$.data.missingIds[0]").value("6778007913f34819876ffff6"))
+                .andExpect(jsonPath("$.data.missingIds[1]").value("6778007913f34819876ffff7"));
+
+        verify(memberService, times(1)).findAllById(argThat(ids -> ids.size() == 3));
+    }
+
+    @Test
+    @WithMockUser
+    void batchGetMembers_invalidId() throws Exception {
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/members/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"6778007913f34819876ffff5\",\"invalidId\"]}"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).findAllById(any());
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getDetails()).hasSize(1);
+        assertThat(apiError.getDetails().getFirst().getMessage()).isEqualTo("Invalid Id format");
+    }
+
+    @Test
+    @WithMockUser
+    void batchGetMembers_tooManyIds() throws Exception {
+        // Arrange
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            ids.add(String.format("6778007913f34819876%05x", i));
+        }
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/members/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", ids))))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).findAllById(any());
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getMessage()).isEqualTo("At most 100 ids per request");
+    }
+
+    @Test
+    @WithMockUser
+    void batchGetMembers_countsDuplicatesAgainstLimit() throws Exception {
+        // Arrange
+        List<String> ids = Collections.nCopies(101, "6778007913f34819876ffff5");
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/members/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", ids))))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).findAllById(any());
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getMessage()).isEqualTo("At most 100 ids per request");
+    }
+
+    @Test
+    @WithMockUser
+    void bulkChangeMemberStatus_returnsCounts() throws Exception {
+        // Arrange
+        when(memberService.bulkChangeStatus(any(), eq(MemberStatus.INACTIVE))).thenReturn(new MemberBulkResultDTO(3, 2));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/v1/members/bulk/status").param("status", "INACTIVE")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emailDomain\":\"partner.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.matched").value(3))
+                .andExpect(jsonPath("$.data.modified").value(2));
+
+        verify(memberService).bulkChangeStatus(argThat(selection -> "partner.com".equals(selection.getEmailDomain())), eq(MemberStatus.INACTIVE));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{}", "{\"ids\":[\"6778007913f34819876ffff5\"],\"emailDomain\":\"partner.com\"}"})
+    @WithMockUser
+    void bulkDeleteMembers_requiresExactlyOneSelector(String body) throws Exception {
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/members/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).bulkDelete(any());
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getMessage()).isEqualTo("Select members by either ids or emailDomain");
+    }
+
+    @Test
+    @WithMockUser
+    void bulkDeleteMembers_invalidDomain() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/members/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emailDomain\":\"partner com\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(memberService, never()).bulkDelete(any());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllMembers_withFields_returnsSparseMembers() throws Exception {
+        // Arrange
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId("6778007913f34819876ffff5");
+        when(memberService.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, Set.of("id", "name"))).thenReturn(List.of(member));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members").param("fields", "name,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value("6778007913f34819876ffff5"))
+                .andExpect(jsonPath("$.data[0].name").value("John Doe"))
+                .andExpect(jsonPath("$.data[0].email").doesNotExist())
+                .andExpect(jsonPath("$.data[0].status").doesNotExist());
+
+        verify(memberService, never()).findAllSorted(any(), any(), eq(null));
+    }
+
+    @Test
+    @WithMockUser
+    void getAllMembers_sortedByStatusDescending() throws Exception {
+        // Arrange
+        when(memberService.findAllSorted(MemberSortKey.STATUS, Sort.Direction.DESC, null)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members").param("sort", "status").param("direction", "DESC"))
+                .andExpect(status().isOk());
+
+        verify(memberService).findAllSorted(MemberSortKey.STATUS, Sort.Direction.DESC, null);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"phoneNumber,asc,'Unknown sort key: phoneNumber. Allowed keys: name,email,status,createdAt'",
+            "name,up,Validation failed"})
+    @WithMockUser
+    void getAllMembers_invalidSort(String sort, String direction, String message) throws Exception {
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/members").param("sort", sort).param("direction", direction))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).findAllSorted(any(), any(), any());
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getMessage()).isEqualTo(message);
+    }
+
+    @Test
+    @WithMockUser
+    void getAllMembers_unknownField() throws Exception {
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/members").param("fields", "id,changeSeq"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getMessage()).startsWith("Unknown field: changeSeq");
+    }
+
+    @Test
+    @WithMockUser
+    void getMemberById_withFields_returnsSparseMemberWithOwnETag() throws Exception {
+        // Arrange
+        String memberId = "6778007913f34819876ffff5";
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId(memberId);
+        member.setChangeSeq(3);
+        when(memberService.findById(memberId, Set.of("name"))).thenReturn(Optional.of(member));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/{id}", memberId).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + memberId + "-3-name\""))
+                .andExpect(jsonPath("$.data.name").value("John Doe"))
+                .andExpect(jsonPath("$.data.id").doesNotExist());
+
+        verify(memberService, never()).findById(memberId);
+    }
+
+    @Test
+    @WithMockUser
+    void streamMemberChanges_startsEventStream() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(memberService, never()).findById(any());
+    }
+
+    @Test
+    @WithMockUser
+    void listMemberChanges_returnsChangesAndNextToken() throws Exception {
+        // Arrange
+        Member changedMember = new Member("John Doe", "john@example.com", "9876543210");
+        changedMember.setId("6778007913f34819876ffff5");
+        changedMember.setChangeSeq(11);
+        Member deletedMember = new Member("Jane Doe", "jane@example.com", "9876543211");
+        deletedMember.setId("6778007913f34819876ffff6");
+        deletedMember.setDeleted(true);
+        deletedMember.setChangeSeq(12);
+        when(memberService.getCommittedChangeSeq()).thenReturn(12L);
+        when(memberService.findChangedSince(eq(10L), eq(12L), any(Integer.class))).thenReturn(List.of(changedMember, deletedMember));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/changes").param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.members.length()").value(1))
+                .andExpect(jsonPath("$.data.members[0].email").value("john@example.com"))
+                .andExpect(jsonPath("$.data.deletedIds[0]").value("6778007913f34819876ffff6"))
+                .andExpect(jsonPath("$.data.nextToken").value("12"))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void listMemberChanges_noChangesKeepsToken() throws Exception {
+        // Arrange
+        when(memberService.getCommittedChangeSeq()).thenReturn(10L);
+        when(memberService.findChangedSince(eq(10L), eq(10L), any(Integer.class))).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/changes").param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.members").isEmpty())
+                .andExpect(jsonPath("$.data.nextToken").value("10"));
+    }
+
+    @Test
+    @WithMockUser
+    void listMemberChanges_tokenMovesToCommittedMark() throws Exception {
+        // Arrange
+        when(memberService.getCommittedChangeSeq()).thenReturn(14L);
+        when(memberService.findChangedSince(eq(10L), eq(14L), any(Integer.class))).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/changes").param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nextToken").value("14"))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void listMemberChanges_invalidToken() throws Exception {
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/members/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        verify(memberService, never()).findChangedSince(any(Long.class), any(Long.class), any(Integer.class));
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getDetails().getFirst().getMessage()).isEqualTo("Invalid sync token");
+    }
+
+    @Test
+    @WithMockUser
+    void getAllMembers_notModifiedSkipsQuery() throws Exception {
+        // Arrange
+        memberVersionTracker.advance(5);
+        String eTag = mockMvc.perform(get("/api/v1/members"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        verify(memberService, times(1)).findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
+    }
+
+    @Test
+    @WithMockUser
+    void getMemberById_notModified() throws Exception {
+        // Arrange
+        String memberId = "6778007913f34819876ffff5";
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId(memberId);
+        member.setChangeSeq(3);
+        when(memberService.findById(eq(memberId))).thenReturn(Optional.of(member));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/{id}", memberId).header("If-None-Match", "\"" + memberId + "-3\""))
+                .andExpect(status().isNotModified());
+
+        member.setChangeSeq(4);
+        memberResponseCache.invalidate(memberId);
+        mockMvc.perform(get("/api/v1/members/{id}", memberId).header("If-None-Match", "\"" + memberId + "-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + memberId + "-4\""));
+    }
+
+    @Test
+    @WithMockUser
+    void getMemberById_gzipHonorsQValuesAndHasOwnETag() throws Exception {
+        // Arrange
+        responseCacheProperties.setGzip(true);
+        String memberId = "6778007913f34819876ffff5";
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId(memberId);
+        member.setChangeSeq(3);
+        when(memberService.findById(eq(memberId))).thenReturn(Optional.of(member));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members/{id}", memberId).header("Accept-Encoding", "gzip;q=0, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"" + memberId + "-3\""));
+        mockMvc.perform(get("/api/v1/members/{id}", memberId).header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"" + memberId + "-3-gz\""));
+        mockMvc.perform(get("/api/v1/members/{id}", memberId)
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"" + memberId + "-3\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/members/{id}", memberId)
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"" + memberId + "-3-gz\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser
+    void getMemberById_servesRepeatLookupsFromCache() throws Exception {
+        // Arrange
+        String memberId = "6778007913f34819876ffff5";
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        member.setId(memberId);
+        when(memberService.findById(eq(memberId))).thenReturn(Optional.of(member));
+
+        // Act
+        String first = mockMvc.perform(get("/api/v1/members/{id}", memberId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/v1/members/{id}", memberId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertThat(second).isEqualTo(first);
+        verify(memberService, times(1)).findById(memberId);
+        ApiResponse<Member> apiResponse = objectMapper.readValue(second, new TypeReference<>() {});
+        assertThat(apiResponse.getData().getEmail()).isEqualTo("john@example.com");
+    }
+
+    @Test
+    void getAllMembers_malformedBearerToken() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/members").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer error=\"invalid_token\""))
+                .andExpect(jsonPath("$.path").value("/api/v1/members"));
+        verify(memberService, never()).findAllSorted(any(), any(), any());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
 import org.quickstarts.kitchensink.model.User;
 import org.quickstarts.kitchensink.pojo.ApiError;
 import org.quickstarts.kitchensink.pojo.FieldError;
@@ -20,11 +21,14 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Date;
 import java.util.List;
+import java.util.OptionalLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -53,6 +57,9 @@ class UserControllerTest {
     @MockitoBean
     private UserRepository userRepository;
 
+    @Autowired
+    private TokenGenerationCache tokenGenerationCache;
+
     @BeforeAll
     static void beforeAll() {
         objectMapper = new ObjectMapper();
@@ -249,12 +256,13 @@ class UserControllerTest {
                     "confirmPassword": "Pass@1234"
                 }
                 """;
+        tokenGenerationCache.clear();
         String existingPassword = passwordEncoder.encode("Pass@123");
         User userByEmail = mock(User.class);
         when(userRepository.findByEmail("test@example.com")).thenReturn(userByEmail);
         when(userByEmail.getPassword()).thenReturn(existingPassword);
-        doNothing().when(userByEmail).setPassword(any(String.class));
-        doNothing().when(userService).saveOrUpdate(any(User.class));
+        when(userRepository.updatePassword(eq("test@example.com"), eq(existingPassword), any(String.class), any(Date.class)))
+                .thenReturn(OptionalLong.of(4));
 
         // Act & Assert
         mockMvc.perform(put("/users/update-password")
@@ -264,8 +272,39 @@ class UserControllerTest {
                 .andExpect(content().string("{\"status\":200,\"message\":\"Password successfully updated\"}"));
 
         verify(userRepository).findByEmail("test@example.com");
-        verify(userByEmail).setPassword(any(String.class));
-        verify(userService).saveOrUpdate(any(User.class));
+        verify(userRepository).updatePassword(eq("test@example.com"), eq(existingPassword),
+                argThat(password -> passwordEncoder.matches("Pass@1234", password)), any(Date.class));
+        verify(userService, never()).saveOrUpdate(any(User.class));
+        assertThat(tokenGenerationCache.current("test@example.com")).isEqualTo(4);
+    }
+
+    @Test
+    void testUpdatePassword_throwExceptionIfPasswordChangedConcurrently() throws Exception {
+        // Arrange
+        String body = """
+                {
+                    "email": "test@example.com",
+                    "existingPassword": "Pass@123",
+                    "password": "Pass@1234",
+                    "confirmPassword": "Pass@1234"
+                }
+                """;
+        String existingPassword = passwordEncoder.encode("Pass@123");
+        User userByEmail = mock(User.class);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(userByEmail);
+        when(userByEmail.getPassword()).thenReturn(existingPassword);
+        when(userRepository.updatePassword(eq("test@example.com"), eq(existingPassword), any(String.class), any(Date.class)))
+                .thenReturn(OptionalLong.empty());
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(put("/users/update-password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        ApiError apiError = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), ApiError.class);
+        assertThat(apiError.getMessage()).isEqualTo("Existing password does not match the current password.");
     }
 
     @Test
@@ -0,0 +1,74 @@
+package org.quickstarts.kitchensink.filter;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.ConcurrencyLimitProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitProperties concurrencyLimitProperties;
+    private GradientConcurrencyLimit gradientConcurrencyLimit;
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setInitialLimit(1);
+        gradientConcurrencyLimit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+        concurrencyLimitFilter = new ConcurrencyLimitFilter(gradientConcurrencyLimit, concurrencyLimitProperties);
+    }
+
+    @Test
+    void testDoFilter_releasesPermitAfterChain() throws Exception {
+        // Arrange
+        FilterChain filterChain = mock(FilterChain.class);
+
+        // Act
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/members"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(filterChain, times(1)).doFilter(any(), any());
+        assertThat(gradientConcurrencyLimit.getInFlight()).isZero();
+    }
+
+    @Test
+    void testDoFilter_atLimit_rejectsWith503() throws Exception {
+        // Arrange
+        FilterChain filterChain = mock(FilterChain.class);
+        gradientConcurrencyLimit.tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/v1/members"), response, filterChain);
+
+        // Assert
+        verify(filterChain, never()).doFilter(any(), any());
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"status\":503");
+        assertThat(gradientConcurrencyLimit.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void testDoFilter_actuatorBypassesLimit() throws Exception {
+        // Arrange
+        FilterChain filterChain = mock(FilterChain.class);
+        gradientConcurrencyLimit.tryAcquire();
+
+        // Act
+        concurrencyLimitFilter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+}
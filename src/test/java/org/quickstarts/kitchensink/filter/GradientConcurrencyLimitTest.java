@@ -0,0 +1,104 @@
+package org.quickstarts.kitchensink.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.ConcurrencyLimitProperties;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientConcurrencyLimitTest {
+    private static final long MILLIS = 1_000_000;
+
+    private ConcurrencyLimitProperties concurrencyLimitProperties;
+    private GradientConcurrencyLimit gradientConcurrencyLimit;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setInitialLimit(20);
+        concurrencyLimitProperties.setMinLimit(4);
+        concurrencyLimitProperties.setWindow(Duration.ZERO);
+        concurrencyLimitProperties.setWindowSamples(10);
+        concurrencyLimitProperties.setLongWindow(10);
+        gradientConcurrencyLimit = new GradientConcurrencyLimit(concurrencyLimitProperties);
+    }
+
+    @Test
+    void testTryAcquire_rejectsAtLimit() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            assertThat(gradientConcurrencyLimit.tryAcquire()).isTrue();
+        }
+
+        // Act & Assert
+        assertThat(gradientConcurrencyLimit.tryAcquire()).isFalse();
+        assertThat(gradientConcurrencyLimit.getRejected()).isEqualTo(1);
+        gradientConcurrencyLimit.release(MILLIS, false);
+        assertThat(gradientConcurrencyLimit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void testLimit_growsWhileLatencyIsSteady() {
+        // Act
+        runWindows(20, 20, 5 * MILLIS);
+
+        // Assert
+        assertThat(gradientConcurrencyLimit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void testLimit_shrinksWhenLatencyClimbs() {
+        // Arrange
+        runWindows(5, 20, 5 * MILLIS);
+        int steady = gradientConcurrencyLimit.getLimit();
+
+        // Act
+        runWindows(5, steady, 50 * MILLIS);
+
+        // Assert
+        assertThat(gradientConcurrencyLimit.getLimit()).isLessThan(steady);
+        assertThat(gradientConcurrencyLimit.getLimit()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void testLimit_unchangedWhenApplicationLimited() {
+        // Act
+        runWindows(20, 2, 5 * MILLIS);
+
+        // Assert
+        assertThat(gradientConcurrencyLimit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void testBindTo_registersMeters() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        gradientConcurrencyLimit.bindTo(registry);
+
+        // Assert
+        assertThat(registry.get("kitchensink.concurrency.limit").gauge().value()).isEqualTo(20);
+        assertThat(registry.get("kitchensink.concurrency.in-flight").gauge().value()).isZero();
+        assertThat(registry.get("kitchensink.concurrency.rejected").functionCounter().count()).isZero();
+    }
+
+    // Completes windows of requests that each ran with the given concurrency and RTT.
+    private void runWindows(int windows, int concurrency, long rttNanos) {
+        for (int window = 0; window < windows; window++) {
+            for (int i = 0; i < 10; i++) {
+                int acquired = 0;
+                while (acquired < concurrency && gradientConcurrencyLimit.tryAcquire()) {
+                    acquired++;
+                }
+                gradientConcurrencyLimit.release(rttNanos, true);
+                for (int j = 1; j < acquired; j++) {
+                    gradientConcurrencyLimit.release(rttNanos, false);
+                }
+            }
+        }
+    }
+}
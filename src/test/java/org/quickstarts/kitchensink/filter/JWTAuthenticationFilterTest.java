@@ -7,13 +7,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.quickstarts.kitchensink.cache.RejectedTokenCache;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.cache.VerifiedTokenCache;
+import org.quickstarts.kitchensink.config.RejectedTokenCacheProperties;
+import org.quickstarts.kitchensink.config.VerifiedTokenCacheProperties;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.quickstarts.kitchensink.repository.UserRepository;
 import org.quickstarts.kitchensink.service.JwtTokenService;
 import org.quickstarts.kitchensink.service.UserService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,9 +38,19 @@ class JWTAuthenticationFilterTest {
     @Mock
     private JwtTokenService jwtTokenService;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private FilterChain filterChain;
 
+    @Mock
+    private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+
+    private RejectedTokenCache rejectedTokenCache;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
     private JWTAuthenticationFilter jwtAuthenticationFilter;
 
     @Mock
@@ -40,7 +62,10 @@ class JWTAuthenticationFilterTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        jwtAuthenticationFilter = new JWTAuthenticationFilter(userService, jwtTokenService);
+        rejectedTokenCache = new RejectedTokenCache(new RejectedTokenCacheProperties());
+        verifiedTokenCache = new VerifiedTokenCache(new VerifiedTokenCacheProperties());
+        jwtAuthenticationFilter = new JWTAuthenticationFilter(userService, jwtTokenService, rejectedTokenCache,
+                verifiedTokenCache, new TokenGenerationCache(userRepository), jwtAuthenticationEntryPoint);
         SecurityContextHolder.clearContext();
     }
 
@@ -52,10 +77,10 @@ class JWTAuthenticationFilterTest {
         UserDetails userDetails = mock(UserDetails.class);
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenService.extractUsername(token)).thenReturn(username);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(true);
+        when(jwtTokenService.verify(token)).thenReturn(new VerifiedToken(username, false, 0, 0, null, 0));
         when(userService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtTokenService.validateToken(token, userDetails)).thenReturn(true);
-        when(jwtTokenService.isRefreshToken(token)).thenReturn(false);
+        when(userDetails.getUsername()).thenReturn(username);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -86,9 +111,9 @@ class JWTAuthenticationFilterTest {
         String username = "user@example.com";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenService.extractUsername(token)).thenReturn(username);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(true);
+        when(jwtTokenService.verify(token)).thenReturn(new VerifiedToken(username, false, 0, 0, null, 0));
         when(userService.loadUserByUsername(username)).thenReturn(null); // Simulating an invalid user
-        when(jwtTokenService.validateToken(token, null)).thenReturn(false);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -106,10 +131,10 @@ class JWTAuthenticationFilterTest {
         UserDetails userDetails = mock(UserDetails.class);
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenService.extractUsername(token)).thenReturn(username);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(true);
+        when(jwtTokenService.verify(token)).thenReturn(new VerifiedToken(username, true, 0, 0, null, 0)); // This is a refresh token
         when(userService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtTokenService.validateToken(token, userDetails)).thenReturn(true);
-        when(jwtTokenService.isRefreshToken(token)).thenReturn(true); // This is a refresh token
+        when(userDetails.getUsername()).thenReturn(username);
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -118,4 +143,89 @@ class JWTAuthenticationFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull(); // No authentication should be set
         verify(filterChain, times(1)).doFilter(request, response);
     }
+
+    @Test
+    void testDoFilterInternal_malformedToken_rejectedWithoutParsing() throws Exception {
+        // Arrange
+        String token = "not-a-jwt";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(false);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(jwtTokenService, never()).verify(any());
+        verify(jwtAuthenticationEntryPoint, times(1)).commence(eq(request), eq(response), any(InvalidTokenException.class));
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_expiredToken_rejectedAndRemembered() throws Exception {
+        // Arrange
+        String token = "expired-token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(true);
+        when(jwtTokenService.verify(token)).thenThrow(new InvalidTokenException("Expired token"));
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertThat(rejectedTokenCache.contains(token)).isTrue();
+        verify(jwtTokenService, times(1)).verify(token);
+        verify(jwtAuthenticationEntryPoint, times(2)).commence(eq(request), eq(response), any(InvalidTokenException.class));
+        verify(filterChain, never()).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void testDoFilterInternal_repeatToken_verifiedOnce() throws Exception {
+        // Arrange
+        String token = "valid-jwt-token";
+        String username = "user@example.com";
+        UserDetails userDetails = mock(UserDetails.class);
+        long expiresAt = System.currentTimeMillis() / 1000 + 3600;
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(true);
+        when(jwtTokenService.verify(token)).thenReturn(new VerifiedToken(username, false, 0, expiresAt, null, 0));
+        when(userService.loadUserByUsername(username)).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn(username);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(jwtTokenService, times(1)).verify(token);
+        verify(filterChain, times(2)).doFilter(request, response);
+        assertThat(verifiedTokenCache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void testDoFilterInternal_tokenFromOlderGeneration_revoked() throws Exception {
+        // Arrange
+        String token = "valid-jwt-token";
+        String username = "user@example.com";
+        User user = new User(username, "secret");
+        user.setTokenGeneration(2);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenService.isWellFormed(token)).thenReturn(true);
+        when(jwtTokenService.verify(token)).thenReturn(new VerifiedToken(username, false, 0, 0, null, 1));
+        when(userRepository.findByEmail(username)).thenReturn(user);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userService, never()).loadUserByUsername(any());
+        verify(jwtAuthenticationEntryPoint, times(1)).commence(eq(request), eq(response), any(InvalidTokenException.class));
+        verify(filterChain, never()).doFilter(request, response);
+    }
 }
@@ -0,0 +1,170 @@
+package org.quickstarts.kitchensink.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quickstarts.kitchensink.config.RateLimitProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter rateLimitFilter;
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setMethod("POST");
+        route.setPath("/auth/token");
+        route.setUsernameField("username");
+        route.setPerIp(budget(10));
+        route.setPerUsername(budget(1));
+        rateLimitProperties.setRoutes(List.of(route));
+        rateLimitFilter = new RateLimitFilter(new RateLimiter(rateLimitProperties), rateLimitProperties);
+        filterChain = mock(FilterChain.class);
+    }
+
+    @Test
+    void testDoFilter_passesBodyThrough() throws Exception {
+        // Arrange
+        ArgumentCaptor<ServletRequest> captor = ArgumentCaptor.forClass(ServletRequest.class);
+
+        // Act
+        rateLimitFilter.doFilter(login("john@example.com", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(captor.capture(), any());
+        assertThat(new String(captor.getValue().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .contains("john@example.com");
+    }
+
+    @Test
+    void testDoFilter_largeBodyStreamedThroughUninspected() throws Exception {
+        // Arrange
+        String body = "{\"username\":\"john@example.com\",\"padding\":\"" + "x".repeat(10_000) + "\"}";
+        ArgumentCaptor<ServletRequest> captor = ArgumentCaptor.forClass(ServletRequest.class);
+        rateLimitFilter.doFilter(login("john@example.com", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+
+        // Act
+        rateLimitFilter.doFilter(request(body, "10.0.0.2"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(filterChain, times(2)).doFilter(captor.capture(), any());
+        assertThat(new String(captor.getValue().getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void testDoFilter_readListenerSeesBufferedBody() throws Exception {
+        // Arrange
+        ArgumentCaptor<ServletRequest> captor = ArgumentCaptor.forClass(ServletRequest.class);
+        rateLimitFilter.doFilter(login("john@example.com", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+        verify(filterChain).doFilter(captor.capture(), any());
+        ServletInputStream inputStream = captor.getValue().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allDataRead = new boolean[1];
+
+        // Act
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[64];
+                int n;
+                while (inputStream.isReady() && (n = inputStream.read(buffer)) != -1) {
+                    read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        });
+
+        // Assert
+        assertThat(allDataRead[0]).isTrue();
+        assertThat(inputStream.isFinished()).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).contains("john@example.com");
+    }
+
+    @Test
+    void testDoFilter_sameUsernameFromAnotherIp_rejectedWith429() throws Exception {
+        // Arrange
+        rateLimitFilter.doFilter(login("john@example.com", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        rateLimitFilter.doFilter(login("John@Example.com", "10.0.0.2"), response, filterChain);
+
+        // Assert
+        verify(filterChain, times(1)).doFilter(any(), any());
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(Integer.parseInt(response.getHeader("Retry-After"))).isPositive();
+    }
+
+    @Test
+    void testDoFilter_otherRoutesUntouched() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/members");
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            rateLimitFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        }
+
+        // Assert
+        verify(filterChain, times(20)).doFilter(any(), any());
+    }
+
+    @Test
+    void testDoFilter_perIpBudget() throws Exception {
+        // Act
+        for (int i = 0; i < 11; i++) {
+            rateLimitFilter.doFilter(login("user" + i + "@example.com", "10.0.0.1"), new MockHttpServletResponse(), filterChain);
+        }
+
+        // Assert
+        verify(filterChain, times(10)).doFilter(any(), any());
+        verify(filterChain, never()).doFilter(any(MockHttpServletRequest.class), any());
+    }
+
+    private static MockHttpServletRequest login(String username, String remoteAddr) {
+        return request("{\"username\":\"" + username + "\",\"password\":\"secret\"}", remoteAddr);
+    }
+
+    private static MockHttpServletRequest request(String body, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/token");
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static RateLimitProperties.Budget budget(int capacity) {
+        RateLimitProperties.Budget budget = new RateLimitProperties.Budget();
+        budget.setCapacity(capacity);
+        budget.setPerMinute(1);
+        return budget;
+    }
+}
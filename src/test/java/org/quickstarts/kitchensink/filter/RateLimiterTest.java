@@ -0,0 +1,77 @@
+package org.quickstarts.kitchensink.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.RateLimitProperties;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimitProperties rateLimitProperties;
+    private RateLimiter rateLimiter;
+    private RateLimitProperties.Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties = new RateLimitProperties();
+        rateLimiter = new RateLimiter(rateLimitProperties);
+        budget = new RateLimitProperties.Budget();
+        budget.setCapacity(3);
+        budget.setPerMinute(60);
+    }
+
+    @Test
+    void testTryAcquire_allowsBurstThenRefuses() {
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("key", budget, 0)).isZero();
+        }
+        long wait = rateLimiter.tryAcquire("key", budget, 0);
+        assertThat(wait).isEqualTo(SECOND);
+        assertThat(rateLimiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void testTryAcquire_refillsAtRate() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("key", budget, 0);
+        }
+
+        // Act & Assert
+        assertThat(rateLimiter.tryAcquire("key", budget, SECOND / 2)).isPositive();
+        assertThat(rateLimiter.tryAcquire("key", budget, SECOND)).isZero();
+        assertThat(rateLimiter.tryAcquire("key", budget, SECOND)).isPositive();
+    }
+
+    @Test
+    void testTryAcquire_keysAreIndependent() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("a", budget, 0);
+        }
+
+        // Act & Assert
+        assertThat(rateLimiter.tryAcquire("a", budget, 0)).isPositive();
+        assertThat(rateLimiter.tryAcquire("b", budget, 0)).isZero();
+    }
+
+    @Test
+    void testTryAcquire_boundedByMaxEntries() {
+        // Arrange
+        rateLimitProperties.setMaxEntries(2);
+        long now = System.nanoTime();
+
+        // Act
+        rateLimiter.tryAcquire("a", budget, now);
+        rateLimiter.tryAcquire("b", budget, now);
+        rateLimiter.tryAcquire("c", budget, now + 10 * SECOND);
+
+        // Assert: a and b had refilled, so the sweep dropped them
+        assertThat(rateLimiter.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,50 @@
+package org.quickstarts.kitchensink.pojo;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.quickstarts.kitchensink.util.ApplicationConstants.MAX_IDS_PER_REQUEST;
+
+public class MemberIdsDTOTest {
+    private Validator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void testInvalidIdReported() {
+        // Arrange
+        MemberIdsDTO request = new MemberIdsDTO(List.of("6778007913f34819876ffff5", "invalidId"));
+
+        // Act
+        Set<ConstraintViolation<MemberIdsDTO>> violations = validator.validate(request);
+
+        // Assert
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getMessage()).isEqualTo("Invalid Id format");
+    }
+
+    @Test
+    void testOversizedListRejectedBeforeIdsAreChecked() {
+        // Arrange
+        List<String> ids = new ArrayList<>(Collections.nCopies(MAX_IDS_PER_REQUEST + 1, "invalidId"));
+
+        // Act
+        Set<ConstraintViolation<MemberIdsDTO>> violations = validator.validate(new MemberIdsDTO(ids));
+
+        // Assert
+        assertThat(violations).hasSize(1);
+        assertThat(violations.iterator().next().getMessage()).isEqualTo("At most " + MAX_IDS_PER_REQUEST + " ids per request");
+    }
+}
@@ -0,0 +1,249 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryMemberRepositoryTest {
+
+    private InMemoryMemberRepository memberRepository;
+
+    @BeforeEach
+    void setUp() {
+        memberRepository = new InMemoryMemberRepository();
+    }
+
+    @Test
+    void testSave_assignsIdAndStoresCopy() {
+        // Arrange
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+
+        // Act
+        memberRepository.save(member);
+        member.setName("Changed Without Save");
+
+        // Assert
+        assertThat(member.getId()).isNotNull();
+        Optional<Member> result = memberRepository.findById(member.getId());
+        assertThat(result).isPresent();
+        assertThat(result.get().getName()).isEqualTo("John Doe");
+        assertThat(result.get()).isNotSameAs(member);
+    }
+
+    @Test
+    void testFindByEmail() {
+        // Arrange
+        memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+
+        // Act & Assert
+        assertThat(memberRepository.findByEmail("john@example.com")).isPresent();
+        assertThat(memberRepository.existsByEmail("john@example.com")).isTrue();
+        assertThat(memberRepository.findByEmail("jane@example.com")).isNotPresent();
+        assertThat(memberRepository.existsByEmail("jane@example.com")).isFalse();
+    }
+
+    @Test
+    void testSave_duplicateEmail() {
+        // Arrange
+        memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> memberRepository.save(new Member("Johnny", "john@example.com", "9876543211")))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void testSave_updateReindexesEmailAndName() {
+        // Arrange
+        Member member = memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+        memberRepository.save(new Member("Bob", "bob@example.com", "9876543211"));
+
+        // Act
+        member.setName("Alice");
+        member.setEmail("alice@example.com");
+        memberRepository.save(member);
+
+        // Assert
+        assertThat(memberRepository.findByEmail("john@example.com")).isNotPresent();
+        assertThat(memberRepository.findByEmail("alice@example.com")).isPresent();
+        assertThat(memberRepository.findAllOrderedBy(Sort.by("name")))
+                .extracting(Member::getName)
+                .containsExactly("Alice", "Bob");
+        assertThat(memberRepository.findAll(Sort.by(Sort.Direction.DESC, "name")))
+                .extracting(Member::getName)
+                .containsExactly("Bob", "Alice");
+        assertThat(memberRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.DESC, null))
+                .extracting(Member::getName)
+                .containsExactly("Bob", "Alice");
+        assertThat(memberRepository.findAllSorted(MemberSortKey.EMAIL, Sort.Direction.ASC, null))
+                .extracting(Member::getEmail)
+                .containsExactly("alice@example.com", "bob@example.com");
+    }
+
+    @Test
+    void testFindByChangeSeqGreaterThan() {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            Member member = new Member("Member", "member" + i + "@example.com", "9876543210");
+            member.setChangeSeq(i);
+            memberRepository.save(member);
+        }
+
+        // Act
+        List<Member> result = memberRepository.findByChangeSeqGreaterThan(2, PageRequest.of(0, 2, Sort.by("changeSeq")));
+
+        // Assert
+        assertThat(result).extracting(Member::getChangeSeq).containsExactly(3L, 4L);
+        assertThat(memberRepository.findFirstByOrderByChangeSeqDesc())
+                .map(Member::getChangeSeq)
+                .contains(5L);
+    }
+
+    @Test
+    void testDeleteById_removesFromIndexes() {
+        // Arrange
+        Member member = memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+
+        // Act
+        memberRepository.deleteById(member.getId());
+
+        // Assert
+        assertThat(memberRepository.count()).isZero();
+        assertThat(memberRepository.existsByEmail("john@example.com")).isFalse();
+        assertThat(memberRepository.findAllOrderedBy(Sort.by("name"))).isEmpty();
+        assertThat(memberRepository.findFirstByOrderByChangeSeqDesc()).isNotPresent();
+    }
+
+    @Test
+    void testFindAll_sortedByOtherProperty() {
+        // Arrange
+        memberRepository.save(new Member("John Doe", "john@example.com", "3"));
+        memberRepository.save(new Member("Jane Doe", "jane@example.com", "1"));
+
+        // Act
+        List<Member> result = memberRepository.findAll(Sort.by("phoneNumber"));
+
+        // Assert
+        assertThat(result).extracting(Member::getEmail).containsExactly("jane@example.com", "john@example.com");
+    }
+
+    @Test
+    void testBulkUpdateState_skipsDeletedMembers() {
+        // Arrange
+        Member active = memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+        Member deleted = new Member("Jane Doe", "jane@example.com", "9876543211");
+        deleted.setDeleted(true);
+        memberRepository.save(deleted);
+        active.setStatus(MemberStatus.INACTIVE);
+        active.setChangeSeq(7);
+        deleted.setStatus(MemberStatus.INACTIVE);
+
+        // Act
+        List<String> modified = memberRepository.bulkUpdateState(List.of(active, deleted));
+
+        // Assert
+        assertThat(modified).containsExactly(active.getId());
+        assertThat(memberRepository.findById(active.getId()).orElseThrow().getStatus()).isEqualTo(MemberStatus.INACTIVE);
+        assertThat(memberRepository.findById(deleted.getId()).orElseThrow().getStatus()).isEqualTo(MemberStatus.ACTIVE);
+        assertThat(memberRepository.findFirstByOrderByChangeSeqDesc()).get().extracting(Member::getId).isEqualTo(active.getId());
+    }
+
+    @Test
+    void testFindByEmailDomain_pagesAfterLastId() {
+        // Arrange
+        Member john = memberRepository.save(new Member("John Doe", "john@Partner.com", "9876543210"));
+        Member jane = memberRepository.save(new Member("Jane Doe", "jane@partner.com", "9876543211"));
+        memberRepository.save(new Member("Jim Doe", "jim@example.com", "9876543212"));
+        Member renamed = memberRepository.save(new Member("Joe Doe", "joe@partner.com", "9876543213"));
+        renamed.setEmail("joe@example.org");
+        memberRepository.save(renamed);
+
+        // Act
+        List<Member> firstPage = memberRepository.findByEmailDomain("partner.com", null, 1);
+        List<Member> secondPage = memberRepository.findByEmailDomain("partner.com", firstPage.getLast().getId(), 1);
+        List<Member> lastPage = memberRepository.findByEmailDomain("partner.com", secondPage.getLast().getId(), 1);
+
+        // Assert
+        assertThat(firstPage).extracting(Member::getId).containsExactly(john.getId());
+        assertThat(secondPage).extracting(Member::getId).containsExactly(jane.getId());
+        assertThat(lastPage).isEmpty();
+        assertThat(john.getEmailDomain()).isEqualTo("partner.com");
+    }
+
+    @Test
+    void testFindAllSorted_caseInsensitiveWithIdTieBreak() {
+        // Arrange
+        Member bob = memberRepository.save(new Member("bob", "bob@example.com", "9876543210"));
+        Member alice = memberRepository.save(new Member("Alice", "alice@example.com", "9876543211"));
+        Member inactive = new Member("Carol", "carol@example.com", "9876543212");
+        inactive.setStatus(MemberStatus.INACTIVE);
+        memberRepository.save(inactive);
+
+        // Act & Assert
+        assertThat(memberRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null))
+                .extracting(Member::getName).containsExactly("Alice", "bob", "Carol");
+        assertThat(memberRepository.findAllSorted(MemberSortKey.STATUS, Sort.Direction.DESC, null))
+                .extracting(Member::getName).containsExactly("Carol", "bob", "Alice");
+        assertThat(memberRepository.findAllSorted(MemberSortKey.EMAIL, Sort.Direction.DESC, null))
+                .extracting(Member::getName).containsExactly("Carol", "bob", "Alice");
+        assertThat(memberRepository.findAllSorted(MemberSortKey.CREATED_AT, Sort.Direction.ASC, null))
+                .extracting(Member::getId).containsExactly(bob.getId(), alice.getId(), inactive.getId());
+    }
+
+    @Test
+    void testSearchText_matchesWholeWordsOfVisibleMembers() {
+        // Arrange
+        memberRepository.save(new Member("John Smith", "john.smith@example.com", "9876543210"));
+        memberRepository.save(new Member("Johnny Doe", "johnny@example.com", "9876543211"));
+        Member inactive = new Member("John Inactive", "inactive@example.com", "9876543212");
+        inactive.setStatus(MemberStatus.INACTIVE);
+        memberRepository.save(inactive);
+
+        // Act
+        List<Member> result = memberRepository.searchText("john smith", 10);
+
+        // Assert
+        assertThat(result).extracting(Member::getName).containsExactly("John Smith");
+    }
+
+    @Test
+    void testCountMembers() {
+        // Arrange
+        Member changed = new Member("John Doe", "john@example.com", "9876543210");
+        changed.setChangeSeq(8);
+        memberRepository.save(changed);
+        Member inactive = new Member("Jane Doe", "jane@example.com", "9876543211");
+        inactive.setStatus(MemberStatus.INACTIVE);
+        memberRepository.save(inactive);
+        Member deleted = new Member("Jim Doe", "jim@example.com", "9876543212");
+        deleted.setDeleted(true);
+        memberRepository.save(deleted);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        // Act
+        MemberQueryRepository.MemberCounts counts = memberRepository.countMembers(today, 5);
+
+        // Assert
+        assertThat(counts.states()).containsExactlyInAnyOrder(
+                new MemberQueryRepository.StateCount(MemberStatus.ACTIVE, false, 1),
+                new MemberQueryRepository.StateCount(MemberStatus.INACTIVE, false, 1),
+                new MemberQueryRepository.StateCount(MemberStatus.ACTIVE, true, 1));
+        assertThat(counts.registrations()).containsExactly(Map.entry(today, 3L));
+        assertThat(counts.changeSeqs()).containsExactly(Map.entry(changed.getId(), 8L));
+        assertThat(memberRepository.countMembers(today.plusDays(1), 5).registrations()).isEmpty();
+    }
+}
@@ -0,0 +1,81 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quickstarts.kitchensink.config.LogStoreProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogStructuredMemberRepositoryTest {
+
+    @TempDir
+    private Path directory;
+
+    private LogStoreProperties logStoreProperties;
+
+    @BeforeEach
+    void setUp() {
+        logStoreProperties = new LogStoreProperties();
+        logStoreProperties.setDirectory(directory);
+    }
+
+    @Test
+    void testRecoversMembersAfterRestart() throws IOException {
+        // Arrange
+        LogStructuredMemberRepository memberRepository = new LogStructuredMemberRepository(logStoreProperties);
+        Member member = memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+        member.setStatus(MemberStatus.INACTIVE);
+        member.setChangeSeq(7);
+        member.setChangeType(MemberChangeType.UPDATED);
+        memberRepository.save(member);
+        Member deleted = memberRepository.save(new Member("Jane Doe", "jane@example.com", "9876543211"));
+        memberRepository.deleteById(deleted.getId());
+        memberRepository.close();
+
+        // Act
+        LogStructuredMemberRepository recovered = new LogStructuredMemberRepository(logStoreProperties);
+
+        // Assert
+        Optional<Member> result = recovered.findByEmail("john@example.com");
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(member.getId());
+        assertThat(result.get().getStatus()).isEqualTo(MemberStatus.INACTIVE);
+        assertThat(result.get().getChangeSeq()).isEqualTo(7);
+        assertThat(result.get().getChangeType()).isEqualTo(MemberChangeType.UPDATED);
+        assertThat(recovered.existsByEmail("jane@example.com")).isFalse();
+        assertThat(recovered.findAllOrderedBy(Sort.by("name"))).hasSize(1);
+        recovered.close();
+    }
+
+    @Test
+    void testCompact_dropsOverwrittenRecords() throws IOException {
+        // Arrange
+        LogStructuredMemberRepository memberRepository = new LogStructuredMemberRepository(logStoreProperties);
+        Member member = memberRepository.save(new Member("John Doe", "john@example.com", "9876543210"));
+        for (int i = 0; i < 10; i++) {
+            member.setChangeSeq(i);
+            memberRepository.save(member);
+        }
+
+        // Act
+        boolean compacted = memberRepository.compact(0.5);
+        memberRepository.close();
+
+        // Assert
+        assertThat(compacted).isTrue();
+        LogStructuredMemberRepository recovered = new LogStructuredMemberRepository(logStoreProperties);
+        assertThat(recovered.count()).isEqualTo(1);
+        assertThat(recovered.findById(member.getId()).map(Member::getChangeSeq)).contains(9L);
+        assertThat(recovered.compact(0.5)).isFalse();
+        recovered.close();
+    }
+}
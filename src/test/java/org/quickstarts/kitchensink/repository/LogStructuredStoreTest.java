@@ -0,0 +1,119 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogStructuredStoreTest {
+    private static final int INITIAL_SIZE = 1024;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testReplay_appliesPutsAndDeletesInOrder() throws IOException {
+        // Arrange
+        Path file = directory.resolve("test.log");
+        try (LogStructuredStore store = open(file, new LinkedHashMap<>())) {
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+            store.put("a", bytes("3"));
+            store.delete("b");
+        }
+
+        // Act
+        Map<String, String> replayed = new LinkedHashMap<>();
+        try (LogStructuredStore store = open(file, replayed)) {
+            // Assert
+            assertThat(replayed).containsExactly(Map.entry("a", "3"));
+            assertThat(store.records()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void testPut_growsBeyondInitialSize() throws IOException {
+        // Arrange
+        Path file = directory.resolve("test.log");
+        try (LogStructuredStore store = open(file, new LinkedHashMap<>())) {
+            for (int i = 0; i < 100; i++) {
+                store.put("key" + i, bytes("value" + i));
+            }
+        }
+
+        // Act
+        Map<String, String> replayed = new LinkedHashMap<>();
+        try (LogStructuredStore ignored = open(file, replayed)) {
+            // Assert
+            assertThat(replayed).hasSize(100).containsEntry("key99", "value99");
+        }
+    }
+
+    @Test
+    void testOpen_truncatesTornTail() throws IOException {
+        // Arrange
+        Path file = directory.resolve("test.log");
+        int tornAt;
+        try (LogStructuredStore store = open(file, new LinkedHashMap<>())) {
+            store.put("a", bytes("1"));
+            tornAt = store.size();
+            store.put("b", bytes("2"));
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(tornAt + 12); // inside b's key, so its checksum no longer matches
+            raf.write('x');
+        }
+
+        // Act
+        Map<String, String> replayed = new LinkedHashMap<>();
+        try (LogStructuredStore store = open(file, replayed)) {
+            store.put("c", bytes("3"));
+        }
+        Map<String, String> afterRecovery = new LinkedHashMap<>();
+        try (LogStructuredStore ignored = open(file, afterRecovery)) {
+            // Assert
+            assertThat(replayed).containsExactly(Map.entry("a", "1"));
+            assertThat(afterRecovery).containsExactly(Map.entry("a", "1"), Map.entry("c", "3"));
+        }
+    }
+
+    @Test
+    void testRewrite_keepsOnlyLiveRecords() throws IOException {
+        // Arrange
+        Path file = directory.resolve("test.log");
+        try (LogStructuredStore store = open(file, new LinkedHashMap<>())) {
+            store.put("a", bytes("1"));
+            store.put("a", bytes("2"));
+            store.put("b", bytes("3"));
+            store.delete("b");
+
+            // Act
+            store.rewrite(Map.of("a", bytes("2")));
+            store.put("c", bytes("4"));
+
+            // Assert
+            assertThat(store.records()).isEqualTo(2);
+        }
+        Map<String, String> replayed = new LinkedHashMap<>();
+        try (LogStructuredStore ignored = open(file, replayed)) {
+            assertThat(replayed).containsExactly(Map.entry("a", "2"), Map.entry("c", "4"));
+        }
+    }
+
+    private static LogStructuredStore open(Path file, Map<String, String> replayed) {
+        LogStructuredStore store = new LogStructuredStore(file, INITIAL_SIZE, false);
+        store.open((key, value) -> replayed.put(key, new String(value, StandardCharsets.UTF_8)), replayed::remove);
+        return store;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
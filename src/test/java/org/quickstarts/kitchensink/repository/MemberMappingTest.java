@@ -0,0 +1,47 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberMappingTest {
+    private MappingMongoConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void testWrite_storesLowerCasedEmailDomain() {
+        // Arrange
+        Member member = new Member("John Doe", "john@Partner.com", "9876543210");
+        Document document = new Document();
+
+        // Act
+        converter.write(member, document);
+
+        // Assert
+        assertThat(document.getString("email_domain")).isEqualTo("partner.com");
+    }
+
+    @Test
+    void testRead_derivesEmailDomainMissingFromDocument() {
+        // Arrange
+        Document document = new Document("name", "John Doe").append("email", "john@Partner.com");
+
+        // Act
+        Member member = converter.read(Member.class, document);
+
+        // Assert
+        assertThat(member.getEmail()).isEqualTo("john@Partner.com");
+        assertThat(member.getEmailDomain()).isEqualTo("partner.com");
+    }
+}
@@ -0,0 +1,94 @@
+package org.quickstarts.kitchensink.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.model.Member;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberQueryRepositoryImplTest {
+    private MongoTemplate mongoTemplate;
+    private IndexOperations indexOperations;
+    private MemberQueryRepositoryImpl memberQueryRepository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        indexOperations = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Member.class)).thenReturn(indexOperations);
+        memberQueryRepository = new MemberQueryRepositoryImpl(mongoTemplate);
+    }
+
+    @Test
+    void testFindAllSorted_hintsExistingIndex() {
+        // Arrange
+        when(indexOperations.getIndexInfo()).thenReturn(indexes("_id_", "name_ci"));
+
+        // Act
+        memberQueryRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
+
+        // Assert
+        assertThat(findQueries(1).getFirst().getHint()).isEqualTo("name_ci");
+    }
+
+    @Test
+    void testFindAllSorted_missingIndexNotHinted() {
+        // Arrange
+        when(indexOperations.getIndexInfo()).thenReturn(indexes("_id_"));
+
+        // Act
+        memberQueryRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
+        memberQueryRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
+
+        // Assert
+        assertThat(findQueries(2)).allSatisfy(query -> assertThat(query.getHint()).isNull());
+        verify(indexOperations, times(1)).getIndexInfo();
+    }
+
+    @Test
+    void testFindAllSorted_retriesUnhintedWhenIndexDropped() {
+        // Arrange
+        when(indexOperations.getIndexInfo()).thenReturn(indexes("_id_", "name_ci"), indexes("_id_"));
+        when(mongoTemplate.find(any(Query.class), eq(Member.class)))
+                .thenThrow(new InvalidDataAccessApiUsageException("hint provided does not correspond to an existing index"))
+                .thenReturn(List.of());
+
+        // Act
+        List<Member> members = memberQueryRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
+
+        // Assert
+        assertThat(members).isEmpty();
+        List<Query> queries = findQueries(2);
+        assertThat(queries.getFirst().getHint()).isEqualTo("name_ci");
+        assertThat(queries.getLast().getHint()).isNull();
+    }
+
+    private List<Query> findQueries(int count) {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(count)).find(captor.capture(), eq(Member.class));
+        return captor.getAllValues();
+    }
+
+    private static List<IndexInfo> indexes(String... names) {
+        return Arrays.stream(names)
+                .map(name -> new IndexInfo(List.of(), name, false, false, null))
+                .toList();
+    }
+}
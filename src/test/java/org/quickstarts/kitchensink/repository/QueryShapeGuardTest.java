@@ -0,0 +1,168 @@
+package org.quickstarts.kitchensink.repository;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.QueryGuardProperties;
+import org.quickstarts.kitchensink.exception.QueryShapeViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryShapeGuardTest {
+    private static final BsonDocument COLLECTION_SCAN = BsonDocument.parse(
+            "{queryPlanner: {winningPlan: {stage: 'COLLSCAN'}}}");
+    private static final BsonDocument INDEX_SCAN = BsonDocument.parse(
+            "{queryPlanner: {winningPlan: {queryPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN', indexName: 'email'}}}}}");
+
+    private MongoDatabase database;
+    private QueryGuardProperties queryGuardProperties;
+    private QueryShapeGuard queryShapeGuard;
+    private List<Runnable> queuedExplains;
+    private ObjectProvider<MongoClient> provider;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoClient mongoClient = mock(MongoClient.class);
+        database = mock(MongoDatabase.class);
+        when(mongoClient.getDatabase("kitchensink")).thenReturn(database);
+        provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(mongoClient);
+        queryGuardProperties = new QueryGuardProperties();
+        queuedExplains = new ArrayList<>();
+        queryShapeGuard = new QueryShapeGuard(queryGuardProperties, provider, queuedExplains::add);
+    }
+
+    @Test
+    void testCommandStarted_explainsEachShapeOnce() {
+        // Arrange
+        when(database.runCommand(any(Bson.class), eq(BsonDocument.class))).thenReturn(INDEX_SCAN);
+
+        // Act
+        queryShapeGuard.commandStarted(find("member", "{email: 'john@example.com'}"));
+        queryShapeGuard.commandStarted(find("member", "{email: 'jane@example.com'}"));
+        explainQueued();
+
+        // Assert
+        verify(database, times(1)).runCommand(any(Bson.class), eq(BsonDocument.class));
+        List<QueryShapeGuard.ShapeReport> report = queryShapeGuard.report();
+        assertThat(report).hasSize(1);
+        assertThat(report.getFirst().shape()).isEqualTo("member.find {\"email\": \"?\"}");
+        assertThat(report.getFirst().plan()).isEqualTo("FETCH > IXSCAN email");
+        assertThat(report.getFirst().collectionScan()).isFalse();
+        assertThat(report.getFirst().executions()).isEqualTo(2);
+    }
+
+    @Test
+    void testCommandStarted_skipsUnfilteredAndUnguardedQueries() {
+        // Act
+        queryShapeGuard.commandStarted(find("member", "{}"));
+        queryShapeGuard.commandStarted(find("member_outbox", "{member_id: 'x'}"));
+
+        // Assert
+        verify(database, never()).runCommand(any(Bson.class), eq(BsonDocument.class));
+        assertThat(queryShapeGuard.report()).isEmpty();
+    }
+
+    @Test
+    void testCheck_warnModeOnlyReportsCollectionScans() {
+        // Arrange
+        when(database.runCommand(any(Bson.class), eq(BsonDocument.class))).thenReturn(COLLECTION_SCAN);
+
+        // Act
+        queryShapeGuard.reset();
+        queryShapeGuard.commandStarted(find("user", "{updatedAt: {$gt: {$date: 0}}}"));
+        explainQueued();
+
+        // Assert
+        queryShapeGuard.check();
+        assertThat(queryShapeGuard.report().getFirst().shape()).isEqualTo("user.find {\"updatedAt\": {\"$gt\": \"?\"}}");
+        assertThat(queryShapeGuard.report().getFirst().collectionScan()).isTrue();
+    }
+
+    @Test
+    void testCheck_strictModeRejectsCollectionScans() {
+        // Arrange
+        queryGuardProperties.setMode(QueryGuardProperties.Mode.STRICT);
+        when(database.runCommand(any(Bson.class), eq(BsonDocument.class))).thenReturn(COLLECTION_SCAN);
+
+        // Act
+        queryShapeGuard.reset();
+        queryShapeGuard.commandStarted(find("user", "{email: 'john@example.com'}"));
+        explainQueued();
+
+        // Assert
+        assertThatThrownBy(queryShapeGuard::check)
+                .isInstanceOf(QueryShapeViolationException.class)
+                .hasMessageContaining("user.find {\"email\": \"?\"}");
+        queryShapeGuard.check();
+    }
+
+    @Test
+    void testCommandStarted_leavesExplainToBackground() {
+        // Arrange
+        when(database.runCommand(any(Bson.class), eq(BsonDocument.class))).thenReturn(INDEX_SCAN);
+
+        // Act
+        queryShapeGuard.commandStarted(find("member", "{email: 'john@example.com'}"));
+
+        // Assert
+        verify(database, never()).runCommand(any(Bson.class), eq(BsonDocument.class));
+        assertThat(queuedExplains).hasSize(1);
+        assertThat(queryShapeGuard.report().getFirst().plan()).isEqualTo("pending");
+        explainQueued();
+        assertThat(queryShapeGuard.report().getFirst().plan()).isEqualTo("FETCH > IXSCAN email");
+    }
+
+    @Test
+    void testCheck_strictModeWaitsForPendingVerdict() {
+        // Arrange
+        queryGuardProperties.setMode(QueryGuardProperties.Mode.STRICT);
+        when(database.runCommand(any(Bson.class), eq(BsonDocument.class))).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return COLLECTION_SCAN;
+        });
+        queryShapeGuard = new QueryShapeGuard(queryGuardProperties, provider, command -> Thread.ofVirtual().start(command));
+
+        // Act
+        queryShapeGuard.reset();
+        queryShapeGuard.commandStarted(find("user", "{email: 'john@example.com'}"));
+
+        // Assert
+        assertThatThrownBy(queryShapeGuard::check)
+                .isInstanceOf(QueryShapeViolationException.class)
+                .hasMessageContaining("COLLSCAN");
+    }
+
+    private void explainQueued() {
+        queuedExplains.forEach(Runnable::run);
+        queuedExplains.clear();
+    }
+
+    private static CommandStartedEvent find(String collection, String filter) {
+        BsonDocument command = BsonDocument.parse("{find: '" + collection + "', filter: " + filter + ", limit: 1}");
+        return new CommandStartedEvent(null, 1, 1,
+                new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress())),
+                "kitchensink", "find", command);
+    }
+}
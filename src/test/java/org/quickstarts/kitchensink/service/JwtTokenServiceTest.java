@@ -4,7 +4,13 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.pojo.VerifiedToken;
+import org.quickstarts.kitchensink.repository.UserRepository;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -14,6 +20,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class JwtTokenServiceTest {
     private JwtTokenService jwtTokenService;
@@ -174,4 +181,99 @@ class JwtTokenServiceTest {
         assertThat(token).startsWith("ey");
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void testIsWellFormed_issuedTokens() {
+        assertThat(jwtTokenService.isWellFormed(jwtTokenService.generateToken("testuser"))).isTrue();
+        assertThat(jwtTokenService.isWellFormed(jwtTokenService.generateRefreshToken("testuser"))).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "not-a-jwt",
+            "a.b",
+            "a.b.c.d",
+            "eyJhbGciOiJIUzI1NiJ9.e30.",
+            "eyJ0eXAiOiJhY2Nlc3MiLCJhbGciOiJIUzI1NiJ9.e30.sig=",
+            "eyJ0eXAiOiJhY2Nlc3MiLCJhbGciOiJub25lIn0.e30.c2ln",
+            "eyJ0eXAiOiJvdGhlciIsImFsZyI6IkhTMjU2In0.e30.c2ln",
+            "bm90IGpzb24.e30.c2ln"
+    })
+    void testIsWellFormed_rejectsMalformedTokens(String token) {
+        assertThat(jwtTokenService.isWellFormed(token)).isFalse();
+    }
+
+    @Test
+    void testVerify_issuedTokens() {
+        VerifiedToken access = jwtTokenService.verify(jwtTokenService.generateToken("testuser"));
+        VerifiedToken refresh = jwtTokenService.verify(jwtTokenService.generateRefreshToken("testuser"));
+
+        assertThat(access.username()).isEqualTo("testuser");
+        assertThat(access.refreshToken()).isFalse();
+        assertThat(access.expiresAt()).isGreaterThan(System.currentTimeMillis() / 1000);
+        assertThat(refresh.username()).isEqualTo("testuser");
+        assertThat(refresh.refreshToken()).isTrue();
+    }
+
+    @Test
+    void testVerify_extraClaimsFallBackToJjwt() {
+        VerifiedToken verified = jwtTokenService.verify(jwtTokenService.generateToken("testuser", Map.of("role", "admin")));
+
+        assertThat(verified.username()).isEqualTo("testuser");
+        assertThat(verified.refreshToken()).isFalse();
+    }
+
+    @Test
+    void testVerify_tamperedPayload() {
+        String token = jwtTokenService.generateToken("testuser");
+        String[] parts = token.split("\\.");
+        String forged = Jwts.builder().subject("admin").issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).signWith(jwtTokenService.getKey()).compact();
+        String tampered = parts[0] + "." + forged.split("\\.")[1] + "." + parts[2];
+
+        assertThatThrownBy(() -> jwtTokenService.verify(tampered))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid token");
+    }
+
+    @Test
+    void testVerify_tokenSignedWithAnotherKey() {
+        String foreign = new JwtTokenService().generateToken("testuser");
+
+        assertThatThrownBy(() -> jwtTokenService.verify(foreign))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid token");
+    }
+
+    @Test
+    void testVerify_expiredToken() {
+        String expired = Jwts.builder()
+                .header().add("typ", "access").and()
+                .subject("testuser")
+                .claim("isRefreshToken", false)
+                .issuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(jwtTokenService.getKey())
+                .compact();
+
+        assertThatThrownBy(() -> jwtTokenService.verify(expired))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Expired token");
+    }
+
+    @Test
+    void testVerify_carriesTokenGeneration() {
+        // Arrange
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        org.quickstarts.kitchensink.model.User user = new org.quickstarts.kitchensink.model.User("testuser", "secret");
+        user.setTokenGeneration(3);
+        Mockito.when(userRepository.findByEmail("testuser")).thenReturn(user);
+        JwtTokenService generationAware = new JwtTokenService(new TokenGenerationCache(userRepository));
+
+        // Act & Assert
+        assertThat(generationAware.verify(generationAware.generateToken("testuser")).generation()).isEqualTo(3);
+        assertThat(generationAware.verify(generationAware.generateToken("testuser", Map.of("role", "admin")))
+                .generation()).isEqualTo(3);
+    }
+}
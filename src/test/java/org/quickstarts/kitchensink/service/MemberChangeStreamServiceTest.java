@@ -0,0 +1,166 @@
+package org.quickstarts.kitchensink.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quickstarts.kitchensink.config.StreamProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberChangeStreamServiceTest {
+    private final List<RecordingEmitter> createdEmitters = new ArrayList<>();
+    // Sender tasks run only when a test says so, standing in for subscribers that read slowly
+    private final List<Runnable> pendingSends = new ArrayList<>();
+
+    private MemberChangeStreamService memberChangeStreamService;
+
+    @BeforeEach
+    void setUp() {
+        memberChangeStreamService = service(Runnable::run);
+    }
+
+    @Test
+    void testOnMemberChange_pushesToSubscribers() {
+        // Arrange
+        RecordingEmitter emitter = (RecordingEmitter) memberChangeStreamService.subscribe(null);
+
+        // Act
+        memberChangeStreamService.onMemberChange(event("1", MemberChangeType.CREATED));
+
+        // Assert
+        assertThat(memberChangeStreamService.getSubscriberCount()).isEqualTo(1);
+        assertThat(emitter.sent).hasSize(1);
+        assertThat(emitter.sent.getFirst()).contains("id:1", "event:created", "alice@example.com");
+    }
+
+    @Test
+    void testSubscribe_replaysEventsAfterLastEventId() {
+        // Arrange
+        memberChangeStreamService.onMemberChange(event("1", MemberChangeType.CREATED));
+        memberChangeStreamService.onMemberChange(event("2", MemberChangeType.UPDATED));
+
+        // Act
+        RecordingEmitter emitter = (RecordingEmitter) memberChangeStreamService.subscribe("1");
+
+        // Assert
+        assertThat(emitter.sent).hasSize(1);
+        assertThat(emitter.sent.getFirst()).contains("id:2", "event:updated");
+        assertThat(memberChangeStreamService.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testSubscribe_sendsResetWhenLastEventIdIsNoLongerBuffered() {
+        // Arrange
+        memberChangeStreamService.onMemberChange(event("1", MemberChangeType.CREATED));
+        memberChangeStreamService.onMemberChange(event("2", MemberChangeType.UPDATED));
+        memberChangeStreamService.onMemberChange(event("3", MemberChangeType.DELETED));
+
+        // Act
+        RecordingEmitter emitter = (RecordingEmitter) memberChangeStreamService.subscribe("1");
+
+        // Assert
+        assertThat(emitter.sent).hasSize(1);
+        assertThat(emitter.sent.getFirst()).contains("event:reset");
+        assertThat(memberChangeStreamService.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void testHeartbeat_dropsBrokenSubscribers() {
+        // Arrange
+        RecordingEmitter emitter = (RecordingEmitter) memberChangeStreamService.subscribe(null);
+        emitter.broken = true;
+
+        // Act
+        memberChangeStreamService.heartbeat();
+
+        // Assert
+        assertThat(memberChangeStreamService.getSubscriberCount()).isZero();
+        assertThat(createdEmitters).hasSize(1);
+    }
+
+    @Test
+    void testOnMemberChange_leavesSendingToSenders() {
+        // Arrange
+        memberChangeStreamService = service(pendingSends::add);
+        RecordingEmitter emitter = (RecordingEmitter) memberChangeStreamService.subscribe(null);
+
+        // Act
+        memberChangeStreamService.onMemberChange(event("1", MemberChangeType.CREATED));
+
+        // Assert
+        assertThat(emitter.sent).isEmpty();
+        pendingSends.forEach(Runnable::run);
+        assertThat(emitter.sent).hasSize(1);
+    }
+
+    @Test
+    void testOnMemberChange_disconnectsSubscriberThatFallsBehind() {
+        // Arrange
+        memberChangeStreamService = service(pendingSends::add);
+        RecordingEmitter slow = (RecordingEmitter) memberChangeStreamService.subscribe(null);
+
+        // Act
+        memberChangeStreamService.onMemberChange(event("1", MemberChangeType.CREATED));
+        memberChangeStreamService.onMemberChange(event("2", MemberChangeType.UPDATED));
+        memberChangeStreamService.onMemberChange(event("3", MemberChangeType.UPDATED));
+
+        // Assert
+        assertThat(memberChangeStreamService.getSubscriberCount()).isZero();
+        pendingSends.forEach(Runnable::run);
+        assertThat(slow.sent).isEmpty();
+        assertThat(slow.completed).isTrue();
+    }
+
+    private MemberChangeStreamService service(Executor senders) {
+        StreamProperties streamProperties = new StreamProperties();
+        streamProperties.setReplayBufferSize(2);
+        streamProperties.setSubscriberQueueSize(2);
+        return new MemberChangeStreamService(new ObjectMapper(), streamProperties, senders) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                createdEmitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static MemberChangeEvent event(String id, MemberChangeType type) {
+        MemberChangeEvent event = MemberChangeEvent.of(type, new Member("Alice", "alice@example.com", "1234567890"));
+        event.setId(id);
+        return event;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+        private boolean broken;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("connection reset");
+            }
+            sent.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(Object::toString)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -5,12 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.quickstarts.kitchensink.cache.MemberStatistics;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.config.MemberStatsProperties;
+import org.quickstarts.kitchensink.enums.MemberStatus;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
 import org.quickstarts.kitchensink.model.Member;
 import org.quickstarts.kitchensink.repository.MemberRepository;
-import org.springframework.context.ApplicationEventPublisher;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class MemberRegistrationServiceImplTest {
 
@@ -18,7 +25,13 @@ class MemberRegistrationServiceImplTest {
     private MemberRepository memberRepository;
 
     @Mock
-    private ApplicationEventPublisher applicationEventPublisher;
+    private SequenceService sequenceService;
+
+    @Mock
+    private MemberVersionTracker memberVersionTracker;
+
+    @Spy
+    private MemberStatistics memberStatistics = new MemberStatistics(new MemberStatsProperties());
 
     @InjectMocks
     private MemberRegistrationServiceImpl memberRegistrationService;
@@ -33,15 +46,25 @@ class MemberRegistrationServiceImplTest {
     void testRegister_memberSuccessfullyRegistered() {
         // Arrange
         Member member = new Member("Test", "test@example.com", "1234567890");
+        when(sequenceService.next("member")).thenReturn(7L);
+        when(sequenceService.release("member", 7L)).thenReturn(7L);
 
         // Act
         memberRegistrationService.register(member);
 
+        // Assert: Verify that the member got the next change sequence
+        assertThat(member.getChangeSeq()).isEqualTo(7L);
+
+        // Assert: Verify that the member is counted as a new active member
+        assertThat(memberStatistics.getStats().getByStatus()).containsEntry(MemberStatus.ACTIVE, 1L);
+
         // Assert: Verify that save() was called on the memberRepository
         verify(memberRepository, times(1)).save(member);
 
-        // Assert: Verify that publishEvent() was called on the applicationEventPublisher
-        verify(applicationEventPublisher, times(1)).publishEvent(member);
+        // Assert: Verify that the member carries its CREATED change for the relay
+        assertThat(member.getChangeType()).isEqualTo(MemberChangeType.CREATED);
+        verify(sequenceService, times(1)).release("member", 7L);
+        verify(memberVersionTracker, times(1)).advance(7L);
     }
 
 }
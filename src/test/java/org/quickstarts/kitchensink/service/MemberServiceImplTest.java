@@ -5,15 +5,46 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.quickstarts.kitchensink.cache.MemberBatchLoader;
+import org.quickstarts.kitchensink.cache.MemberLookupCoalescer;
+import org.quickstarts.kitchensink.cache.MemberResponseCache;
+import org.quickstarts.kitchensink.cache.MemberSearchIndex;
+import org.quickstarts.kitchensink.cache.MemberStatistics;
+import org.quickstarts.kitchensink.cache.MemberVersionTracker;
+import org.quickstarts.kitchensink.config.MemberBulkProperties;
+import org.quickstarts.kitchensink.config.MemberStatsProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.enums.MemberSortKey;
+import org.quickstarts.kitchensink.enums.MemberStatus;
 import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.pojo.MemberBulkResultDTO;
+import org.quickstarts.kitchensink.pojo.MemberSelectionDTO;
 import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,6 +54,33 @@ class MemberServiceImplTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private SequenceService sequenceService;
+
+    @Mock
+    private MemberVersionTracker memberVersionTracker;
+
+    @Mock
+    private MemberResponseCache memberResponseCache;
+
+    @Mock
+    private MemberBatchLoader memberBatchLoader;
+
+    @Mock
+    private MemberSearchIndex memberSearchIndex;
+
+    @Spy
+    private MemberStatistics memberStatistics = new MemberStatistics(new MemberStatsProperties());
+
+    @Spy
+    private MemberBulkProperties memberBulkProperties = new MemberBulkProperties();
+
+    @Spy
+    private MemberLookupCoalescer memberLookupCoalescer = new MemberLookupCoalescer();
+
+    @Spy
+    private TransactionOperations bulkTransactions = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private MemberServiceImpl memberService;
 
@@ -56,7 +114,7 @@ class MemberServiceImplTest {
         Member member2 = new Member("Bob", "bob@example.com", "9876543210");
         List<Member> members = Arrays.asList(member1, member2);
 
-        when(memberRepository.findAllOrderedBy(Sort.by("name"))).thenReturn(members);
+        when(memberRepository.findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null)).thenReturn(members);
 
         // Act
         List<Member> result = memberService.findAllOrderedByName();
@@ -65,7 +123,7 @@ class MemberServiceImplTest {
         assertThat(result).isNotEmpty();
         assertThat(result.get(0).getName()).isEqualTo("Alice");
         assertThat(result.get(1).getName()).isEqualTo("Bob");
-        verify(memberRepository, times(1)).findAllOrderedBy(Sort.by("name"));
+        verify(memberRepository, times(1)).findAllSorted(MemberSortKey.NAME, Sort.Direction.ASC, null);
     }
 
     @Test
@@ -98,16 +156,143 @@ class MemberServiceImplTest {
         verify(memberRepository, times(1)).findById(memberId);
     }
 
+    @Test
+    void testFindById_batchingEnabled_loadsThroughBatchLoader() {
+        // Arrange
+        String memberId = "1";
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        when(memberBatchLoader.isEnabled()).thenReturn(true);
+        when(memberBatchLoader.load(memberId)).thenReturn(Optional.of(member));
+
+        // Act
+        Optional<Member> result = memberService.findById(memberId);
+
+        // Assert
+        assertThat(result).contains(member);
+        verify(memberRepository, never()).findById(memberId);
+    }
+
+    @Test
+    void testFindById_concurrentLookupsShareOneQuery() throws Exception {
+        // Arrange
+        String memberId = "1";
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        CountDownLatch release = new CountDownLatch(1);
+        when(memberRepository.findById(memberId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(member);
+        });
+
+        // Act
+        List<Optional<Member>> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Optional<Member>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> memberService.findById(memberId)));
+            }
+            while (memberLookupCoalescer.getCoalesced() < 7) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            results = new ArrayList<>();
+            for (Future<Optional<Member>> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // Assert
+        verify(memberRepository, times(1)).findById(memberId);
+        assertThat(memberLookupCoalescer.getQueries()).isEqualTo(1);
+        assertThat(results).allSatisfy(result -> assertThat(result).get().extracting(Member::getEmail).isEqualTo("alice@example.com"));
+        // Each waiting caller gets its own copy
+        assertThat(results.stream().map(Optional::get).distinct()).hasSize(8);
+    }
+
+    @Test
+    void testFindByEmail_sequentialLookupsEachQuery() {
+        // Arrange
+        String email = "alice@example.com";
+        when(memberRepository.findByEmail(email)).thenReturn(Optional.empty());
+
+        // Act
+        memberService.findByEmail(email);
+        memberService.findByEmail(email);
+
+        // Assert
+        verify(memberRepository, times(2)).findByEmail(email);
+        assertThat(memberLookupCoalescer.getCoalesced()).isZero();
+    }
+
     @Test
     void testSave() {
         // Arrange
         Member member = new Member("Alice", "alice@example.com", "1234567890");
+        when(sequenceService.next("member")).thenReturn(42L);
+        when(sequenceService.release("member", 42L)).thenReturn(42L);
 
         // Act
-        memberService.save(member);
+        memberService.save(null, member);
 
         // Assert
+        assertThat(member.getChangeSeq()).isEqualTo(42L);
         verify(memberRepository, times(1)).save(member);
+        assertThat(member.getChangeType()).isEqualTo(MemberChangeType.UPDATED);
+        verify(memberVersionTracker, times(1)).advance(42L);
+        verify(memberResponseCache, times(1)).invalidateAfterCommit(member.getId());
+        verify(memberLookupCoalescer, times(1)).forgetAfterCommit(member);
+        verify(sequenceService, times(1)).release("member", 42L);
+    }
+
+    @Test
+    void testSave_releasesSequenceWhenWriteFails() {
+        // Arrange
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        when(sequenceService.next("member")).thenReturn(42L);
+        when(memberRepository.save(member)).thenThrow(new IllegalStateException("write failed"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> memberService.save(null, member)).isInstanceOf(IllegalStateException.class);
+        verify(sequenceService, times(1)).release("member", 42L);
+    }
+
+    @Test
+    void testSave_movesStatisticsFromCallersState() {
+        // Arrange
+        Member before = new Member("Alice", "alice@example.com", "1234567890");
+        before.setId("6778007913f34819876ffff5");
+        Member member = before.copy();
+        member.setStatus(MemberStatus.INACTIVE);
+
+        // Act
+        memberService.save(before, member);
+
+        // Assert
+        verify(memberRepository, never()).findById(any());
+        assertThat(memberStatistics.getStats().getByStatus())
+                .containsEntry(MemberStatus.ACTIVE, -1L)
+                .containsEntry(MemberStatus.INACTIVE, 1L);
+        assertThat(memberStatistics.getStats().getRegistrationsPerDay()).isEmpty();
+    }
+
+    @Test
+    void testDelete() {
+        // Arrange
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        when(sequenceService.next("member")).thenReturn(43L);
+        when(sequenceService.release("member", 43L)).thenReturn(43L);
+
+        // Act
+        memberService.delete(member);
+
+        // Assert
+        assertThat(member.isDeleted()).isTrue();
+        assertThat(member.getChangeSeq()).isEqualTo(43L);
+        verify(memberRepository, times(1)).save(member);
+        assertThat(member.getChangeType()).isEqualTo(MemberChangeType.DELETED);
+        verify(memberVersionTracker, times(1)).advance(43L);
+        verify(memberResponseCache, times(1)).invalidateAfterCommit(member.getId());
+        assertThat(memberStatistics.getStats().getByStatus()).containsEntry(MemberStatus.ACTIVE, -1L);
+        assertThat(memberStatistics.getStats().getDeleted()).isEqualTo(1);
     }
 
     @Test
@@ -135,4 +320,155 @@ class MemberServiceImplTest {
         assertThat(result).isFalse();
         verify(memberRepository, times(1)).existsByEmail(email);
     }
+
+    @Test
+    void testSearch_usesIndexWhenReady() {
+        // Arrange
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        when(memberSearchIndex.isReady()).thenReturn(true);
+        when(memberSearchIndex.search("jo", 20)).thenReturn(List.of(member));
+
+        // Act
+        List<Member> result = memberService.search("jo", 20);
+
+        // Assert
+        assertThat(result).containsExactly(member);
+        verify(memberRepository, never()).searchText(any(), anyInt());
+    }
+
+    @Test
+    void testSearch_fallsBackToTextIndex() {
+        // Arrange
+        Member member = new Member("John Doe", "john@example.com", "9876543210");
+        when(memberSearchIndex.isReady()).thenReturn(false);
+        when(memberRepository.searchText("john", 20)).thenReturn(List.of(member));
+
+        // Act
+        List<Member> result = memberService.search("john", 20);
+
+        // Assert
+        assertThat(result).containsExactly(member);
+        verify(memberSearchIndex, never()).search(any(), anyInt());
+    }
+
+    @Test
+    void testFindChangedSince() {
+        // Arrange
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("changeSeq"));
+        when(memberRepository.findByChangeSeqGreaterThan(5L, pageRequest)).thenReturn(List.of(member));
+
+        // Act
+        List<Member> result = memberService.findChangedSince(5L, 10L, 10);
+
+        // Assert
+        assertThat(result).containsExactly(member);
+        verify(memberRepository, times(1)).findByChangeSeqGreaterThan(5L, pageRequest);
+    }
+
+    @Test
+    void testFindChangedSince_stopsAtCommittedMark() {
+        // Arrange
+        Member committed = new Member("Alice", "alice@example.com", "1234567890");
+        committed.setChangeSeq(6);
+        Member aheadOfInFlightWrite = new Member("Bob", "bob@example.com", "1234567891");
+        aheadOfInFlightWrite.setChangeSeq(8);
+        when(memberRepository.findByChangeSeqGreaterThan(eq(5L), any(Pageable.class)))
+                .thenReturn(List.of(committed, aheadOfInFlightWrite));
+
+        // Act
+        List<Member> result = memberService.findChangedSince(5L, 6L, 10);
+
+        // Assert
+        assertThat(result).containsExactly(committed);
+    }
+
+    @Test
+    void testBulkChangeStatus_byIds() {
+        // Arrange
+        Member active = member("1", MemberStatus.ACTIVE, false);
+        Member inactive = member("2", MemberStatus.INACTIVE, false);
+        Member deleted = member("3", MemberStatus.ACTIVE, true);
+        MemberSelectionDTO selection = new MemberSelectionDTO(List.of("1", "2", "3"), null);
+        when(memberRepository.findAllById(selection.getIds())).thenReturn(List.of(active, inactive, deleted));
+        when(sequenceService.next("member", 1)).thenReturn(50L);
+        when(memberRepository.bulkUpdateState(anyList())).thenAnswer(invocation -> invocation.<List<Member>>getArgument(0).stream().map(Member::getId).toList());
+
+        // Act
+        MemberBulkResultDTO result = memberService.bulkChangeStatus(selection, MemberStatus.INACTIVE);
+
+        // Assert
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getModified()).isEqualTo(1);
+        assertThat(active.getStatus()).isEqualTo(MemberStatus.INACTIVE);
+        assertThat(active.getChangeSeq()).isEqualTo(50L);
+        verify(memberRepository).bulkUpdateState(List.of(active));
+        assertThat(active.getChangeType()).isEqualTo(MemberChangeType.UPDATED);
+        assertThat(inactive.getChangeType()).isNull();
+        verify(sequenceService).release("member", 50L);
+        verify(memberResponseCache).invalidateAllAfterCommit(List.of("1"));
+        verify(memberRepository, never()).save(any());
+    }
+
+    @Test
+    void testBulkDelete_byEmailDomain_pagesThroughMatches() {
+        // Arrange
+        memberBulkProperties.setBatchSize(2);
+        Member first = member("1", MemberStatus.ACTIVE, false);
+        Member second = member("2", MemberStatus.INACTIVE, false);
+        Member third = member("3", MemberStatus.ACTIVE, false);
+        when(memberRepository.findByEmailDomain("partner.com", null, 2)).thenReturn(List.of(first, second));
+        when(memberRepository.findByEmailDomain("partner.com", "2", 2)).thenReturn(List.of(third));
+        when(sequenceService.next("member", 1)).thenReturn(10L, 11L);
+        when(memberRepository.bulkUpdateState(anyList())).thenReturn(List.of("1"), List.of("3"));
+
+        // Act
+        MemberBulkResultDTO result = memberService.bulkDelete(new MemberSelectionDTO(null, "Partner.com"));
+
+        // Assert
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getModified()).isEqualTo(2);
+        assertThat(first.isDeleted()).isTrue();
+        assertThat(second.isDeleted()).isFalse();
+        assertThat(third.getChangeSeq()).isEqualTo(11L);
+        verify(memberRepository, times(2)).findByEmailDomain(eq("partner.com"), any(), eq(2));
+        assertThat(first.getChangeType()).isEqualTo(MemberChangeType.DELETED);
+        assertThat(third.getChangeType()).isEqualTo(MemberChangeType.DELETED);
+        verify(sequenceService).release("member", 10L);
+        verify(sequenceService).release("member", 11L);
+        verify(memberVersionTracker, times(2)).advance(anyLong());
+        verify(bulkTransactions, times(2)).execute(any());
+        verify(memberResponseCache).invalidateAllAfterCommit(List.of("1"));
+        verify(memberResponseCache).invalidateAllAfterCommit(List.of("3"));
+    }
+
+    @Test
+    void testBulkChangeStatus_skipsMembersDeletedConcurrently() {
+        // Arrange
+        Member kept = member("1", MemberStatus.ACTIVE, false);
+        Member deletedMeanwhile = member("2", MemberStatus.ACTIVE, false);
+        MemberSelectionDTO selection = new MemberSelectionDTO(List.of("1", "2"), null);
+        when(memberRepository.findAllById(selection.getIds())).thenReturn(List.of(kept, deletedMeanwhile));
+        when(sequenceService.next("member", 2)).thenReturn(21L);
+        when(memberRepository.bulkUpdateState(anyList())).thenReturn(List.of("1"));
+
+        // Act
+        MemberBulkResultDTO result = memberService.bulkChangeStatus(selection, MemberStatus.INACTIVE);
+
+        // Assert
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(result.getModified()).isEqualTo(1);
+        verify(memberResponseCache).invalidateAllAfterCommit(List.of("1"));
+        verify(memberLookupCoalescer).forgetAllAfterCommit(List.of(kept));
+        verify(memberStatistics).recordAllAfterCommit(argThat(befores -> befores.size() == 1
+                && befores.getFirst().getId().equals("1") && befores.getFirst().isActive()), eq(List.of(kept)));
+    }
+
+    private static Member member(String id, MemberStatus status, boolean deleted) {
+        Member member = new Member("Alice", "alice" + id + "@partner.com", "1234567890");
+        member.setId(id);
+        member.setStatus(status);
+        member.setDeleted(deleted);
+        return member;
+    }
 }
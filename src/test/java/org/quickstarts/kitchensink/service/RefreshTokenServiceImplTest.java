@@ -0,0 +1,126 @@
+package org.quickstarts.kitchensink.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.quickstarts.kitchensink.cache.ConsumedRefreshTokenCache;
+import org.quickstarts.kitchensink.cache.TokenGenerationCache;
+import org.quickstarts.kitchensink.config.RefreshTokenCacheProperties;
+import org.quickstarts.kitchensink.exception.InvalidTokenException;
+import org.quickstarts.kitchensink.model.User;
+import org.quickstarts.kitchensink.pojo.AuthResponseDTO;
+import org.quickstarts.kitchensink.pojo.UserPrincipalDTO;
+import org.quickstarts.kitchensink.repository.InMemoryRefreshTokenRepository;
+import org.quickstarts.kitchensink.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceImplTest {
+    private static final String USERNAME = "john@example.com";
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private JwtTokenService jwtTokenService;
+    private InMemoryRefreshTokenRepository refreshTokenRepository;
+    private ConsumedRefreshTokenCache consumedRefreshTokenCache;
+    private TokenGenerationCache tokenGenerationCache;
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenGenerationCache = new TokenGenerationCache(userRepository);
+        jwtTokenService = new JwtTokenService(tokenGenerationCache);
+        refreshTokenRepository = new InMemoryRefreshTokenRepository();
+        consumedRefreshTokenCache = new ConsumedRefreshTokenCache(new RefreshTokenCacheProperties());
+        refreshTokenService = new RefreshTokenServiceImpl(jwtTokenService, userService, refreshTokenRepository,
+                consumedRefreshTokenCache, tokenGenerationCache);
+        user = new User(USERNAME, "encoded");
+        when(userService.loadUserByUsername(USERNAME)).thenReturn(new UserPrincipalDTO(user));
+    }
+
+    @Test
+    void testRefresh_issuesNewPair() {
+        // Arrange
+        String refreshToken = jwtTokenService.generateRefreshToken(USERNAME);
+
+        // Act
+        AuthResponseDTO response = refreshTokenService.refresh(refreshToken);
+
+        // Assert
+        assertThat(jwtTokenService.verify(response.getAccessToken()).refreshToken()).isFalse();
+        assertThat(jwtTokenService.verify(response.getRefreshToken()).refreshToken()).isTrue();
+        assertThat(response.getRefreshToken()).isNotEqualTo(refreshToken);
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRefresh_reuseRejectedAndRevokesSuccessor() {
+        // Arrange
+        String refreshToken = jwtTokenService.generateRefreshToken(USERNAME);
+        String successor = refreshTokenService.refresh(refreshToken).getRefreshToken();
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token reused");
+        assertThatThrownBy(() -> refreshTokenService.refresh(successor))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token reused");
+    }
+
+    @Test
+    void testRefresh_reuseDetectedWithoutFrontCache() {
+        // Arrange: another instance exchanged the token, so only the store knows
+        String refreshToken = jwtTokenService.generateRefreshToken(USERNAME);
+        refreshTokenService.refresh(refreshToken);
+        consumedRefreshTokenCache.clear();
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token reused");
+    }
+
+    @Test
+    void testRefresh_accessTokenRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refresh(jwtTokenService.generateToken(USERNAME)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Not a refresh token");
+    }
+
+    @Test
+    void testRefresh_disabledUserRejected() {
+        // Arrange
+        user.setEnabled(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refresh(jwtTokenService.generateRefreshToken(USERNAME)))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("User disabled");
+        assertThat(refreshTokenRepository.count()).isZero();
+    }
+
+    @Test
+    void testRefresh_tokenIssuedBeforePasswordChangeRejected() {
+        // Arrange
+        String refreshToken = jwtTokenService.generateRefreshToken(USERNAME);
+        tokenGenerationCache.advance(USERNAME, 1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Revoked token");
+        assertThat(jwtTokenService.verify(refreshTokenService.refresh(jwtTokenService.generateRefreshToken(USERNAME))
+                .getAccessToken()).generation()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,131 @@
+package org.quickstarts.kitchensink.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.quickstarts.kitchensink.config.OutboxProperties;
+import org.quickstarts.kitchensink.enums.MemberChangeType;
+import org.quickstarts.kitchensink.model.Member;
+import org.quickstarts.kitchensink.model.MemberChangeEvent;
+import org.quickstarts.kitchensink.repository.MemberRepository;
+import org.quickstarts.kitchensink.service.SequenceService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MemberOutboxRelayTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private SequenceService sequenceService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private MemberOutboxRelay memberOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setBatchSize(2);
+        memberOutboxRelay = new MemberOutboxRelay(memberRepository, sequenceService, applicationEventPublisher, outboxProperties);
+        when(sequenceService.committedUpTo("member")).thenReturn(10L);
+        memberOutboxRelay.relay();
+    }
+
+    @Test
+    void testRelay_startsAtCommittedMark() {
+        assertThat(memberOutboxRelay.getCursor()).isEqualTo(10L);
+        verify(memberRepository, never()).findByChangeSeqGreaterThan(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testRelay_publishesChangesInBatchesWithoutRemovingThem() {
+        // Arrange
+        Member first = member(11, MemberChangeType.CREATED);
+        Member second = member(12, MemberChangeType.UPDATED);
+        Member third = member(13, MemberChangeType.DELETED);
+        when(sequenceService.committedUpTo("member")).thenReturn(13L);
+        when(memberRepository.findByChangeSeqGreaterThan(eq(10L), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(memberRepository.findByChangeSeqGreaterThan(eq(12L), any(Pageable.class))).thenReturn(List.of(third));
+
+        // Act
+        memberOutboxRelay.relay();
+
+        // Assert
+        ArgumentCaptor<MemberChangeEvent> events = ArgumentCaptor.forClass(MemberChangeEvent.class);
+        verify(applicationEventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(MemberChangeEvent::getType)
+                .containsExactly(MemberChangeType.CREATED, MemberChangeType.UPDATED, MemberChangeType.DELETED);
+        assertThat(events.getAllValues()).extracting(MemberChangeEvent::getId).containsExactly("11", "12", "13");
+        assertThat(memberOutboxRelay.getCursor()).isEqualTo(13L);
+    }
+
+    @Test
+    void testRelay_waitsForWritesInFlightBelowLaterOnes() {
+        // Arrange: 11 is still being written while 12 already landed
+        when(sequenceService.committedUpTo("member")).thenReturn(10L);
+        when(memberRepository.findByChangeSeqGreaterThan(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(member(12, MemberChangeType.UPDATED)));
+
+        // Act
+        memberOutboxRelay.relay();
+
+        // Assert
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(memberOutboxRelay.getCursor()).isEqualTo(10L);
+    }
+
+    @Test
+    void testRelay_keepsCursorWhenListenerFails() {
+        // Arrange
+        Member first = member(11, MemberChangeType.UPDATED);
+        when(sequenceService.committedUpTo("member")).thenReturn(11L);
+        when(memberRepository.findByChangeSeqGreaterThan(eq(10L), any(Pageable.class))).thenReturn(List.of(first));
+        doThrow(new IllegalStateException("listener down")).when(applicationEventPublisher).publishEvent(any(Object.class));
+
+        // Act
+        memberOutboxRelay.relay();
+
+        // Assert
+        assertThat(memberOutboxRelay.getCursor()).isEqualTo(10L);
+    }
+
+    @Test
+    void testRelayBatch_noChangesMovesToCommittedMark() {
+        // Arrange
+        when(memberRepository.findByChangeSeqGreaterThan(eq(10L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        int delivered = memberOutboxRelay.relayBatch(15L);
+
+        // Assert
+        assertThat(delivered).isZero();
+        assertThat(memberOutboxRelay.getCursor()).isEqualTo(15L);
+    }
+
+    private static Member member(long changeSeq, MemberChangeType changeType) {
+        Member member = new Member("Alice", "alice@example.com", "1234567890");
+        member.setId("6778007913f34819876ffff" + changeSeq % 10);
+        member.setDeleted(changeType == MemberChangeType.DELETED);
+        member.setChangeSeq(changeSeq);
+        member.setChangeType(changeType);
+        return member;
+    }
+}
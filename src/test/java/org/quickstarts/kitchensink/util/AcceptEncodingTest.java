@@ -0,0 +1,32 @@
+package org.quickstarts.kitchensink.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "null", value = {
+            "gzip|true",
+            "GZip|true",
+            "gzip, deflate, br|true",
+            "br;q=1.0, gzip;q=0.5|true",
+            "gzip;q=0|false",
+            "gzip; q=0.000|false",
+            "deflate, br|false",
+            "*|true",
+            "*;q=0|false",
+            "*, gzip;q=0|false",
+            "gzip, *;q=0|true",
+            "gzipx|false",
+            "identity|false",
+            "''|false",
+            "null|false"
+    })
+    void testAccepts_gzip(String header, boolean expected) {
+        // Act & Assert
+        assertThat(AcceptEncoding.accepts(header, "gzip")).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,73 @@
+package org.quickstarts.kitchensink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void testExecute_waitersShareTheLeadersException() throws Exception {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(UnaryOperator.identity());
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            while (singleFlight.getExecuted() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<String> waiter = executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                return "second";
+            }));
+            while (singleFlight.getShared() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testExecute_releasesKeyAfterLoad() {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(UnaryOperator.identity());
+
+        // Act
+        singleFlight.execute("key", () -> "first");
+        String second = singleFlight.execute("key", () -> "second");
+
+        // Assert
+        assertThat(second).isEqualTo("second");
+        assertThat(singleFlight.getExecuted()).isEqualTo(2);
+        assertThat(singleFlight.getShared()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}